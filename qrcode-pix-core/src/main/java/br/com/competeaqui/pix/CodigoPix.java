@@ -0,0 +1,297 @@
+package br.com.competeaqui.pix;
+
+/*
+ * Classe baseada em uma biblioteca PHP disponível em https://github.com/renatomb/php_qrcode_pix.
+ */
+
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Gera o código PIX "Copia e Cola" (BR Code), sem depender de bibliotecas externas nem de AWT.
+ * É indicado para aplicações que precisam apenas do código, como funções serverless.
+ * Para gerar também a imagem do QRCode, use a classe {@code QRCodePix} do módulo {@code qrcode-pix}.
+ *
+ * <p>O código é formado por uma sequência de campos no formato TLV (Tag-Length-Value),
+ * onde cada campo tem um código (tag) de 2 dígitos, o tamanho do valor com 2 dígitos e o valor,
+ * seguido do checksum CRC16 de todo o conteúdo.</p>
+ *
+ * <p>Gera códigos estáticos, a partir de {@link DadosEnvioPix}, ou dinâmicos,
+ * a partir de {@link DadosPixDinamico}.</p>
+ *
+ * @see DadosEnvioPix
+ * @see DadosPixDinamico
+ * @see #generate()
+ * @author Manoel Campos da Silva Filho
+ */
+public final class CodigoPix {
+    /**
+     * Payload Format Indicator. Código 00 com valor fixo 01 (obrigatório)
+     */
+    private static final String PFI = "01";
+
+    /**
+     * Point of Initiation Method. Código 01 com valor 12, indicando que o código
+     * não deve ser pago mais de uma vez (usado nos códigos dinâmicos).
+     */
+    private static final String PIM_DINAMICO = "12";
+
+    /**
+     * Código para identificar o campo com o checksum do QRCode gerado.
+     * @see #crcChecksum(CharSequence)
+     */
+    public static final String COD_CRC = "6304";
+
+    /**
+     * Código de país no formato ISO3166-1 alpha 2
+     */
+    private static final String COD_PAIS = "BR";
+
+    /**
+     * Moeda, "986" = BRL: Real Brasileiro - ISO4217
+     */
+    private static final String COD_MOEDA = "986";
+
+    /**
+     * Arranjo específico; Código "00" (GUI) obrigatório e valor fixo: br.gov.bcb.pix
+     */
+    private static final String ARRANJO_PAGAMENTO = "BR.GOV.BCB.PIX";
+
+    /**
+     * Merchant Category Code (MCC ISO18245)
+     */
+    private static final String MCC = "0000";
+
+    /**
+     * Valor para o {@link #idTransacao} quando o campo não for informado.
+     */
+    static final String ID_TRANSACAO_VAZIO = "***";
+
+    /**
+     * Tamanho máximo do valor de um campo.
+     */
+    private static final int MAX_TAMANHO_CAMPO = 99;
+
+    /**
+     * Tamanho típico de um código, usado como capacidade inicial do buffer do {@link #generate()}.
+     */
+    private static final int TAMANHO_INICIAL = 256;
+
+    private static final Pattern CARACTERES_ESPECIAIS = Pattern.compile("[^a-zA-Z0-9\\-@\\.\\*\\s]");
+
+    /**
+     * Identificador único da transação (máx 25 caracteres), ou null se for obtido do {@link #geradorId}.
+     * @see #ID_TRANSACAO_VAZIO
+     */
+    private final String idTransacao;
+
+    /**
+     * Gerador que escreve um novo id da transação diretamente no código a cada {@link #generate()},
+     * ou null se o {@link #idTransacao} for fixo.
+     */
+    private final GeradorIdTransacao geradorId;
+
+    /**
+     * Dados de um PIX estático, ou null se o código for {@link #dadosDinamico dinâmico}.
+     */
+    private final DadosEnvioPix dadosPix;
+
+    /**
+     * Dados de um PIX dinâmico, ou null se o código for {@link #dadosPix estático}.
+     */
+    private final DadosPixDinamico dadosDinamico;
+
+    /**
+     * Cria um objeto CodigoPix sem um id da transação
+     * @param dadosPix Dados preenchidos pelo usuário para envio do PIX
+     * @see #CodigoPix(DadosEnvioPix, String)
+     */
+    public CodigoPix(final DadosEnvioPix dadosPix) {
+        this(dadosPix, ID_TRANSACAO_VAZIO);
+    }
+
+    /**
+     * Cria um objeto CodigoPix com um id de transação único obtido de um gerador.
+     * O id é escrito pelo gerador diretamente no buffer do código, sem criar uma String para ele.
+     * Assim, cada chamada a {@link #generate()} gera um código com um novo id de transação.
+     * @param dadosPix Dados preenchidos pelo usuário para envio do PIX
+     * @param geradorId gerador que fornece o id único da transação
+     * @see #CodigoPix(DadosEnvioPix, String)
+     */
+    public CodigoPix(final DadosEnvioPix dadosPix, final GeradorIdTransacao geradorId) {
+        this.idTransacao = null;
+        this.geradorId = requireNonNull(geradorId);
+        this.dadosPix = requireNonNull(dadosPix);
+        this.dadosDinamico = null;
+    }
+
+    /**
+     * Cria um objeto CodigoPix com um id de transação único.
+     * @param dadosPix Dados preenchidos pelo usuário para envio do PIX
+     * @param idTransacao Identificador único da transação (máx 25 caracteres). Usar *** quando for omitido.
+     *                    Veja mais detalhes em {@code QRCodePix(DadosEnvioPix, String)}.
+     * @throws IllegalArgumentException quando o ID da transação é inválido
+     */
+    public CodigoPix(final DadosEnvioPix dadosPix, final String idTransacao) {
+        if(idTransacao.length() > 25) {
+            final var msg = "idTransacao deve ter no máximo 25 caracteres. Valor %s tem %d caracteres.".formatted(idTransacao, idTransacao.length());
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.idTransacao = idTransacao;
+        this.geradorId = null;
+        this.dadosPix = requireNonNull(dadosPix);
+        this.dadosDinamico = null;
+    }
+
+    /**
+     * Cria um objeto CodigoPix para um PIX dinâmico.
+     * O id da transação não é incluído no código, pois faz parte dos dados
+     * obtidos pelo pagador a partir da {@link DadosPixDinamico#urlLocalizacao() URL de localização}.
+     * @param dadosDinamico Dados do PIX dinâmico
+     */
+    public CodigoPix(final DadosPixDinamico dadosDinamico) {
+        this.idTransacao = ID_TRANSACAO_VAZIO;
+        this.geradorId = null;
+        this.dadosPix = null;
+        this.dadosDinamico = requireNonNull(dadosDinamico);
+    }
+
+    /**
+     * {@return true se o código é de um PIX dinâmico, false se é estático}
+     */
+    public boolean isDinamico() {
+        return dadosDinamico != null;
+    }
+
+    /**
+     * Gera o código PIX "Copia e Cola" para os dados informados.
+     * Os campos são escritos em ordem crescente de código, diretamente em um único buffer.
+     * @return o código gerado
+     */
+    public String generate() {
+        final boolean dinamico = dadosDinamico != null;
+        final var sb = new StringBuilder(TAMANHO_INICIAL);
+        campo(sb, "00", PFI);
+        if(dinamico)
+            campo(sb, "01", PIM_DINAMICO);
+
+        final int inicioContaRecebedor = abrirGrupo(sb, "26");
+        campo(sb, "00", ARRANJO_PAGAMENTO);
+        if(dinamico) {
+            // A URL já foi validada e não pode ter caracteres removidos, como as barras
+            campoSemFiltro(sb, "25", dadosDinamico.urlLocalizacao());
+        } else {
+            campo(sb, "01", dadosPix.chaveDestinatario());
+            campo(sb, "02", dadosPix.descricao());
+        }
+        fecharGrupo(sb, inicioContaRecebedor);
+
+        campo(sb, "52", MCC);
+        campo(sb, "53", COD_MOEDA);
+        if(!dinamico)
+            campoSemFiltro(sb, "54", dadosPix.valorStr());
+        campo(sb, "58", COD_PAIS);
+        campo(sb, "59", dinamico ? dadosDinamico.nomeDestinatario() : dadosPix.nomeDestinatario());
+        campo(sb, "60", dinamico ? dadosDinamico.cidadeRemetente() : dadosPix.cidadeRemetente());
+
+        final int inicioDadosAdicionais = abrirGrupo(sb, "62");
+        if(geradorId == null)
+            campo(sb, "05", idTransacao);
+        else geradorId.proximo(sb.append("05").append(GeradorIdTransacao.TAMANHO));
+        fecharGrupo(sb, inicioDadosAdicionais);
+
+        sb.append(COD_CRC);
+        return sb.append(crcChecksum(sb)).toString();
+    }
+
+    /**
+     * Adiciona um campo ao código, removendo caracteres especiais do valor.
+     * @param sb buffer onde o código está sendo gerado
+     * @param codigo código (tag) do campo
+     * @param valor valor do campo
+     */
+    private static void campo(final StringBuilder sb, final String codigo, final String valor) {
+        campoSemFiltro(sb, codigo, removeSpecialChars(valor));
+    }
+
+    private static void campoSemFiltro(final StringBuilder sb, final String codigo, final String valor) {
+        sb.append(codigo).append(strLenLeftPadded(valor)).append(valor);
+    }
+
+    /**
+     * Inicia um campo que contém outros campos, cujo tamanho só é conhecido depois que eles são adicionados.
+     * @param sb buffer onde o código está sendo gerado
+     * @param codigo código (tag) do campo
+     * @return a posição do buffer onde o valor do campo começa
+     * @see #fecharGrupo(StringBuilder, int)
+     */
+    private static int abrirGrupo(final StringBuilder sb, final String codigo) {
+        sb.append(codigo).append("00");
+        return sb.length();
+    }
+
+    /**
+     * Finaliza um campo iniciado por {@link #abrirGrupo(StringBuilder, String)},
+     * preenchendo o seu tamanho.
+     * @throws IllegalArgumentException se o valor do campo tiver mais de 99 caracteres
+     */
+    private static void fecharGrupo(final StringBuilder sb, final int inicio) {
+        final int tamanho = sb.length() - inicio;
+        validarTamanho(sb.subSequence(inicio, sb.length()), tamanho);
+        sb.setCharAt(inicio - 2, (char) ('0' + tamanho / 10));
+        sb.setCharAt(inicio - 1, (char) ('0' + tamanho % 10));
+    }
+
+    /**
+     * Calcula o checksum CRC16 a partir de um código parcial do PIX.
+     * @param partialCode código parcial do QRCode (contendo apenas caracteres ASCII)
+     * @return o checksum em hexadecimal
+     */
+    static String crcChecksum(final CharSequence partialCode){
+        int crc = 0xFFFF;
+        for (int i = 0; i < partialCode.length(); i++) {
+            crc ^= (byte) partialCode.charAt(i) << 8;
+            for (int j = 0; j < 8; j++) {
+                if ((crc & 0x8000) == 0)
+                    crc = crc << 1;
+                else crc = (crc << 1) ^ 0x1021;
+            }
+        }
+
+        final int decimal = crc & 0xFFFF;
+        return leftPad(Integer.toHexString(decimal).toUpperCase(), 4);
+    }
+
+    private static String removeSpecialChars(final String value) {
+        return CARACTERES_ESPECIAIS.matcher(value).replaceAll("");
+    }
+
+    /**
+     * Obtém o total de caracteres de uma String incluindo zero a esquerda se necessário.
+     * @return o total como uma String de dois dígitos (incluindo zero à esquerda se necessário).
+     * @throws IllegalArgumentException se a quantidade de caracteres do valor é maior que o permitido
+    */
+    static String strLenLeftPadded(final String value) {
+        validarTamanho(value, value.length());
+        return leftPad(String.valueOf(value.length()), 2);
+    }
+
+    private static void validarTamanho(final CharSequence value, final int tamanho) {
+        if (tamanho > MAX_TAMANHO_CAMPO) {
+            final var msg = "Tamanho máximo dos valores dos campos deve ser 99. '%s' tem %d caracteres.".formatted(value, tamanho);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * Inclui uma determinada quantidade de zeros à esquerda de um valor.
+     * @param code código pra incluir zeros à esquerda
+     * @param len tamanho máximo da String retornada
+     * @return o código com possíveis zeros à esquerda
+     */
+    private static String leftPad(final String code, final int len) {
+        return code.length() >= len ? code : "0".repeat(len - code.length()) + code;
+    }
+}
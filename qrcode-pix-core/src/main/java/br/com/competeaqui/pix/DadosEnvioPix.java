@@ -5,6 +5,7 @@ package br.com.competeaqui.pix;
  */
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 import static java.util.Objects.requireNonNull;
 
@@ -83,10 +84,12 @@ public record DadosEnvioPix(String nomeDestinatario, String chaveDestinatario, B
 
     /**
      * Obtém um valor incluindo o ponto como separador de decimais e apenas 2 casas.
+     * Não usa {@link String#format(String, Object...)}, evitando carregar as classes de formatação
+     * e localização na geração do primeiro código.
      * @return
      */
     private static String formatNumber(final BigDecimal value){
-        return String.format("%.2f", value).formatted().replace(",", ".");
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
     }
 }
 
@@ -0,0 +1,66 @@
+package br.com.competeaqui.pix;
+
+import java.util.Locale;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dados para gerar um PIX dinâmico, onde o código contém apenas a URL de um payload (location)
+ * disponibilizado pelo PSP (Prestador de Serviços de Pagamento) do recebedor, no lugar da chave,
+ * valor e descrição. O aplicativo do pagador obtém os demais dados da cobrança a partir dessa URL.
+ *
+ * <p>Como o código é bem menor que o de um PIX estático ({@link DadosEnvioPix}),
+ * o QRCode tem menos módulos, é gerado mais rapidamente e pode ser impresso em tamanhos menores.</p>
+ *
+ * @param nomeDestinatario nome do destinatário (máx 25 caracteres)
+ * @param urlLocalizacao   URL do payload da cobrança, retornada pela API PIX do PSP (campo {@code location}),
+ *                         sem o prefixo {@code https://} (que é removido se informado) e com no máximo 77 caracteres
+ * @param cidadeRemetente  cidade de origem do remetente (máx 15 caracteres)
+ * @see CodigoPix#CodigoPix(DadosPixDinamico)
+ * @see <a href="https://github.com/bacen/pix-api">Documentação oficial do PIX no repositório do Banco Central</a>
+ * @author Manoel Campos da Silva Filho
+ * @throws IllegalArgumentException quando é passado um valor inválido para um campo
+ * @throws NullPointerException quando algum valor nulo é informado
+ */
+public record DadosPixDinamico(String nomeDestinatario, String urlLocalizacao, String cidadeRemetente) {
+    /**
+     * Único protocolo aceito para a URL, que não é incluído no código.
+     */
+    private static final String HTTPS = "https://";
+
+    public DadosPixDinamico {
+        nomeDestinatario = validar(nomeDestinatario, "O nome do destinatário", 25);
+        cidadeRemetente = validar(cidadeRemetente, "A cidade do remetente", 15);
+
+        urlLocalizacao = requireNonNull(urlLocalizacao).trim();
+        if(urlLocalizacao.toLowerCase(Locale.ROOT).startsWith(HTTPS))
+            urlLocalizacao = urlLocalizacao.substring(HTTPS.length());
+
+        if(urlLocalizacao.contains("://"))
+            throw new IllegalArgumentException("A URL de localização deve usar https. URL informada: %s".formatted(urlLocalizacao));
+
+        validar(urlLocalizacao, "A URL de localização", 77);
+        for (int i = 0; i < urlLocalizacao.length(); i++) {
+            final char c = urlLocalizacao.charAt(i);
+            if(c <= ' ' || c > '~') {
+                final var msg = "A URL de localização deve conter apenas caracteres ASCII visíveis. '%s' tem o caractere inválido '%c'."
+                        .formatted(urlLocalizacao, c);
+                throw new IllegalArgumentException(msg);
+            }
+        }
+    }
+
+    private static String validar(final String valor, final String campo, final int tamanhoMaximo) {
+        if(requireNonNull(valor).isBlank())
+            throw new IllegalArgumentException("%s é obrigatório(a).".formatted(campo));
+
+        final var valorSemEspacos = valor.trim();
+        if(valorSemEspacos.length() > tamanhoMaximo) {
+            final var msg = "%s não pode ter mais que %d caracteres. '%s' tem %d caracteres."
+                    .formatted(campo, tamanhoMaximo, valorSemEspacos, valorSemEspacos.length());
+            throw new IllegalArgumentException(msg);
+        }
+
+        return valorSemEspacos;
+    }
+}
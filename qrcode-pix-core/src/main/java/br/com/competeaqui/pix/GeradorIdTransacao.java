@@ -0,0 +1,145 @@
+package br.com.competeaqui.pix;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera identificadores de transação (txid) únicos para o {@link CodigoPix},
+ * com exatamente {@value #TAMANHO} caracteres alfanuméricos (0-9 e A-Z).
+ *
+ * <p>Cada id é formado pela concatenação dos seguintes campos, codificados em base 36:</p>
+ * <ul>
+ *     <li>9 caracteres com o instante da geração, em milissegundos;</li>
+ *     <li>4 caracteres com o id do nó (processo/servidor) que gerou o id;</li>
+ *     <li>5 caracteres com um número atribuído à thread que gerou o id;</li>
+ *     <li>7 caracteres com uma sequência incrementada a cada id gerado pela thread.</li>
+ * </ul>
+ *
+ * <p>Cada thread possui sua própria sequência, assim a geração não usa locks nem
+ * disputa variáveis compartilhadas (apenas a primeira geração de cada thread incrementa um contador atômico).
+ * Os ids são únicos entre threads de um mesmo gerador e entre nós com ids diferentes.
+ * O instante da geração garante que ids gerados após reiniciar o processo não repitam ids anteriores,
+ * desde que o relógio do sistema não retroceda entre as execuções.
+ * Deve-se usar um único gerador por nó.</p>
+ *
+ * @see CodigoPix#CodigoPix(DadosEnvioPix, GeradorIdTransacao)
+ * @author Manoel Campos da Silva Filho
+ */
+public final class GeradorIdTransacao {
+    /**
+     * Quantidade de caracteres de cada id gerado.
+     */
+    public static final int TAMANHO = 25;
+
+    private static final int BASE = 36;
+    private static final char[] DIGITOS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private static final int DIGITOS_INSTANTE = 9;
+    private static final int DIGITOS_NO = 4;
+    private static final int DIGITOS_THREAD = 5;
+    private static final int DIGITOS_SEQUENCIA = 7;
+
+    /**
+     * Maior id de nó aceito (36^4 - 1).
+     */
+    public static final int MAX_ID_NO = (int) Math.pow(BASE, DIGITOS_NO) - 1;
+
+    private static final int TOTAL_THREADS = (int) Math.pow(BASE, DIGITOS_THREAD);
+    private static final long TOTAL_SEQUENCIA = (long) Math.pow(BASE, DIGITOS_SEQUENCIA);
+
+    /**
+     * Id do nó já codificado em base 36, copiado para cada id gerado.
+     */
+    private final String no;
+
+    /**
+     * Próximo número a ser atribuído a uma thread.
+     */
+    private final AtomicInteger proximaThread = new AtomicInteger();
+
+    private final ThreadLocal<EstadoThread> estado = ThreadLocal.withInitial(EstadoThread::new);
+
+    /**
+     * Estado da geração de ids em uma thread, acessado apenas pela própria thread.
+     */
+    private final class EstadoThread {
+        /**
+         * Número da thread já codificado em base 36, copiado para cada id gerado.
+         */
+        private String thread;
+        private long sequencia;
+
+        EstadoThread() {
+            novaFaixa();
+        }
+
+        /**
+         * Atribui um novo número à thread, reiniciando a sequência.
+         * Chamado na criação do estado e quando a sequência da thread se esgota.
+         */
+        void novaFaixa() {
+            thread = codificar(Math.floorMod(proximaThread.getAndIncrement(), TOTAL_THREADS), new StringBuilder(DIGITOS_THREAD), DIGITOS_THREAD).toString();
+            sequencia = 0;
+        }
+
+        long proximaSequencia() {
+            if(sequencia == TOTAL_SEQUENCIA)
+                novaFaixa();
+
+            return sequencia++;
+        }
+    }
+
+    /**
+     * Cria um gerador de ids de transação.
+     * @param idNo identificador único do nó (processo/servidor) que vai gerar os ids,
+     *             entre 0 e {@value #MAX_ID_NO}
+     * @throws IllegalArgumentException se o id do nó for inválido
+     */
+    public GeradorIdTransacao(final int idNo) {
+        if(idNo < 0 || idNo > MAX_ID_NO) {
+            final var msg = "O id do nó deve estar entre 0 e %d. Valor informado: %d.".formatted(MAX_ID_NO, idNo);
+            throw new IllegalArgumentException(msg);
+        }
+
+        this.no = codificar(idNo, new StringBuilder(DIGITOS_NO), DIGITOS_NO).toString();
+    }
+
+    /**
+     * {@return um novo id de transação com {@value #TAMANHO} caracteres}
+     * @see #proximo(StringBuilder)
+     */
+    public String proximo() {
+        return proximo(new StringBuilder(TAMANHO)).toString();
+    }
+
+    /**
+     * Gera um novo id de transação, adicionando-o diretamente ao final de um {@link StringBuilder}
+     * (como o buffer onde o código PIX está sendo gerado), sem criar objetos intermediários.
+     * @param destino onde o id será adicionado
+     * @return o próprio destino
+     */
+    public StringBuilder proximo(final StringBuilder destino) {
+        final var estadoThread = estado.get();
+        codificar(System.currentTimeMillis(), destino, DIGITOS_INSTANTE);
+        destino.append(no);
+        final long sequencia = estadoThread.proximaSequencia();
+        destino.append(estadoThread.thread);
+        return codificar(sequencia, destino, DIGITOS_SEQUENCIA);
+    }
+
+    /**
+     * Adiciona um número em base 36 ao final de um {@link StringBuilder}, com zeros à esquerda até completar
+     * a quantidade de dígitos. Dígitos excedentes (mais significativos) são descartados.
+     * @return o próprio destino
+     */
+    private static StringBuilder codificar(long valor, final StringBuilder destino, final int digitos) {
+        final int inicio = destino.length();
+        destino.setLength(inicio + digitos);
+        for (int i = inicio + digitos - 1; i >= inicio; i--) {
+            destino.setCharAt(i, DIGITOS[(int) (valor % BASE)]);
+            valor /= BASE;
+        }
+
+        return destino;
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.competeaqui.pix;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê um código PIX "Copia e Cola" (BR Code), validando o checksum CRC16 e
+ * obtendo novamente os {@link DadosEnvioPix} e o id da transação (para códigos estáticos)
+ * ou os {@link DadosPixDinamico} (para códigos dinâmicos) usados para gerá-lo.
+ * Faz o caminho inverso de {@link CodigoPix#generate()}.
+ *
+ * @see CodigoPix
+ * @author Manoel Campos da Silva Filho
+ */
+public final class LeitorCodigoPix {
+    /**
+     * Tamanho do checksum CRC16 em hexadecimal, no final do código.
+     */
+    private static final int TAMANHO_CRC = 4;
+
+    private LeitorCodigoPix() {/**/}
+
+    /**
+     * Lê um código PIX "Copia e Cola" estático.
+     * @param codigo código a ser lido
+     * @return os dados e o id da transação contidos no código
+     * @throws IllegalArgumentException se o código for mal formado, tiver um checksum inválido,
+     *                                  não for um PIX, for um PIX dinâmico ou tiver dados inválidos
+     * @see #lerDinamico(String)
+     */
+    public static PixLido ler(final String codigo) {
+        final var campos = camposPix(codigo);
+        final var contaRecebedor = campos(campos.get("26"));
+        if(contaRecebedor.containsKey("25"))
+            throw new IllegalArgumentException("O código é de um PIX dinâmico. Use o método lerDinamico.");
+
+        final var valorStr = obrigatorio(campos, "54", "valor");
+        final BigDecimal valor;
+        try {
+            valor = new BigDecimal(valorStr);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor (campo 54) inválido: %s".formatted(valorStr), e);
+        }
+
+        final var dados = new DadosEnvioPix(
+                obrigatorio(campos, "59", "nome do destinatário"),
+                obrigatorio(contaRecebedor, "01", "chave do destinatário"),
+                valor,
+                obrigatorio(campos, "60", "cidade"),
+                contaRecebedor.getOrDefault("02", ""));
+
+        final var dadosAdicionais = campos(campos.getOrDefault("62", ""));
+        return new PixLido(dados, dadosAdicionais.getOrDefault("05", CodigoPix.ID_TRANSACAO_VAZIO));
+    }
+
+    /**
+     * Lê um código PIX "Copia e Cola" dinâmico.
+     * @param codigo código a ser lido
+     * @return os dados contidos no código
+     * @throws IllegalArgumentException se o código for mal formado, tiver um checksum inválido,
+     *                                  não for um PIX dinâmico ou tiver dados inválidos
+     * @see #ler(String)
+     */
+    public static DadosPixDinamico lerDinamico(final String codigo) {
+        final var campos = camposPix(codigo);
+        final var contaRecebedor = campos(campos.get("26"));
+        return new DadosPixDinamico(
+                obrigatorio(campos, "59", "nome do destinatário"),
+                obrigatorio(contaRecebedor, "25", "URL de localização do PIX dinâmico"),
+                obrigatorio(campos, "60", "cidade"));
+    }
+
+    /**
+     * Verifica se um código PIX "Copia e Cola" é dinâmico.
+     * @param codigo código a ser verificado
+     * @return true se o código é de um PIX dinâmico, false se é estático
+     * @throws IllegalArgumentException se o código for mal formado, tiver um checksum inválido ou não for um PIX
+     */
+    public static boolean isDinamico(final String codigo) {
+        return campos(camposPix(codigo).get("26")).containsKey("25");
+    }
+
+    /**
+     * Separa os campos do código, validando o checksum e os campos que identificam um PIX.
+     * @return os campos do código, que certamente incluem a conta do recebedor (campo 26)
+     */
+    private static Map<String, String> camposPix(final String codigo) {
+        validarCrc(codigo);
+
+        final var campos = campos(codigo, 0, codigo.length() - CodigoPix.COD_CRC.length() - TAMANHO_CRC);
+        if(!"01".equals(campos.get("00")))
+            throw new IllegalArgumentException("Payload Format Indicator (campo 00) inválido: %s".formatted(campos.get("00")));
+
+        final var contaRecebedor = campos(obrigatorio(campos, "26", "conta do recebedor"));
+        final var arranjo = obrigatorio(contaRecebedor, "00", "arranjo de pagamento");
+        if(!"BR.GOV.BCB.PIX".equals(arranjo.toUpperCase(Locale.ROOT)))
+            throw new IllegalArgumentException("O código não é um PIX. Arranjo de pagamento: %s".formatted(arranjo));
+
+        return campos;
+    }
+
+    /**
+     * Verifica se o checksum CRC16 no final de um código PIX confere com o seu conteúdo.
+     * @param codigo código a ser verificado
+     * @return true se o checksum é válido, false caso contrário
+     */
+    public static boolean crcValido(final String codigo) {
+        final int inicioCrc = codigo.length() - TAMANHO_CRC;
+        if(inicioCrc < CodigoPix.COD_CRC.length() || !codigo.startsWith(CodigoPix.COD_CRC, inicioCrc - CodigoPix.COD_CRC.length()))
+            return false;
+
+        final var crc = codigo.substring(inicioCrc);
+        return crc.equalsIgnoreCase(CodigoPix.crcChecksum(codigo.subSequence(0, inicioCrc)));
+    }
+
+    private static void validarCrc(final String codigo) {
+        if(!crcValido(codigo))
+            throw new IllegalArgumentException("Checksum CRC16 do código PIX é inválido ou está ausente: %s".formatted(codigo));
+    }
+
+    private static Map<String, String> campos(final String valor) {
+        return campos(valor, 0, valor.length());
+    }
+
+    /**
+     * Separa os campos TLV (Tag-Length-Value) de um trecho do código.
+     * @param codigo código que contém os campos
+     * @param inicio posição do primeiro campo
+     * @param fim posição após o último campo
+     * @return um mapa onde cada chave é o código (tag) de um campo e o valor é o conteúdo do campo
+     * @throws IllegalArgumentException se algum campo for mal formado
+     */
+    private static Map<String, String> campos(final String codigo, final int inicio, final int fim) {
+        final var campos = new HashMap<String, String>();
+        int i = inicio;
+        while (i < fim) {
+            if(i + 4 > fim)
+                throw new IllegalArgumentException("Campo incompleto na posição %d do código PIX.".formatted(i));
+
+            final var tag = codigo.substring(i, i + 2);
+            final int tamanho;
+            try {
+                tamanho = Integer.parseInt(codigo.substring(i + 2, i + 4));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Tamanho do campo %s inválido na posição %d do código PIX.".formatted(tag, i), e);
+            }
+
+            final int inicioValor = i + 4;
+            if(tamanho < 0 || inicioValor + tamanho > fim)
+                throw new IllegalArgumentException("Campo %s excede o tamanho do código PIX.".formatted(tag));
+
+            campos.put(tag, codigo.substring(inicioValor, inicioValor + tamanho));
+            i = inicioValor + tamanho;
+        }
+
+        return campos;
+    }
+
+    private static String obrigatorio(final Map<String, String> campos, final String tag, final String descricao) {
+        final var valor = campos.get(tag);
+        if(valor == null)
+            throw new IllegalArgumentException("O código PIX não tem o campo %s (%s).".formatted(tag, descricao));
+
+        return valor;
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.competeaqui.pix;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Dados obtidos ao {@link LeitorCodigoPix#ler(String) ler} um código PIX "Copia e Cola".
+ *
+ * @param dados dados do PIX contidos no código
+ * @param idTransacao identificador da transação, ou {@code ***} quando o código não tem um
+ * @author Manoel Campos da Silva Filho
+ */
+public record PixLido(DadosEnvioPix dados, String idTransacao) {
+    public PixLido {
+        requireNonNull(dados);
+        requireNonNull(idTransacao);
+    }
+
+    /**
+     * {@return um {@link CodigoPix} que gera novamente o código lido}
+     */
+    public CodigoPix codigoPix() {
+        return new CodigoPix(dados, idTransacao);
+    }
+}
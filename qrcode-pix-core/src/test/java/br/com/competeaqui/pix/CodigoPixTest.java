@@ -0,0 +1,93 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link CodigoPix}.
+ * @author Manoel Campos da Silva Filho
+ */
+class CodigoPixTest {
+    private static final DadosEnvioPix DADOS = new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas");
+
+    /**
+     * Código que deve ser gerado para os {@link #DADOS} definidos anteriormente.
+     */
+    private static final String CODIGO = "00020126370014BR.GOV.BCB.PIX011111111111111020052040000530398654041.005802BR5906Manoel6006Palmas62070503***630477F1";
+
+    @Test
+    void generate() {
+        assertEquals(CODIGO, new CodigoPix(DADOS).generate());
+    }
+
+    /**
+     * Verifica o código de exemplo apresentado no README.
+     */
+    @Test
+    void generateComDescricao() {
+        final var dados = new DadosEnvioPix(
+                "Manoel Campos da Silva Fh", "manoelcampos@gmail.com",
+                new BigDecimal("1.0"), "Palmas", "PIX em Java");
+        final var esperado = "00020126590014BR.GOV.BCB.PIX0122manoelcampos@gmail.com0211PIX em Java52040000530398654041.005802BR5925Manoel Campos da Silva Fh6006Palmas62070503***6304FEC1";
+        assertEquals(esperado, new CodigoPix(dados).generate());
+    }
+
+    @Test
+    void generateRemoveCaracteresEspeciais() {
+        final var dados = new DadosEnvioPix("Jo'ão", "11111111111", new BigDecimal("1.0"), "Palmas", "Pedido #1 {'x'}");
+        final var codigo = new CodigoPix(dados, "TX-1").generate();
+        assertTrue(codigo.contains("0210Pedido 1 x"), codigo);
+        assertTrue(codigo.contains("5903Joo"), codigo);
+        assertTrue(codigo.contains("0504TX-1"), codigo);
+    }
+
+    @Test
+    void generateGrupoMuitoGrande() {
+        final var dados = new DadosEnvioPix("Manoel", "c".repeat(77), new BigDecimal("1.0"), "Palmas", "d".repeat(72));
+        assertThrows(IllegalArgumentException.class, () -> new CodigoPix(dados).generate());
+    }
+
+    @Test
+    void generateComGeradorIdTransacao() {
+        final var codigoPix = new CodigoPix(DADOS, new GeradorIdTransacao(1));
+        final var primeiro = LeitorCodigoPix.ler(codigoPix.generate());
+        final var segundo = LeitorCodigoPix.ler(codigoPix.generate());
+
+        assertTrue(primeiro.idTransacao().matches("[0-9A-Z]{25}"), primeiro.idTransacao());
+        assertNotEquals(primeiro.idTransacao(), segundo.idTransacao());
+        assertEquals(DADOS.chaveDestinatario(), primeiro.dados().chaveDestinatario());
+    }
+
+    @Test
+    void constructorIdTransacaoMuitoGrande() {
+        final var idInvalido = "i".repeat(26);
+        assertThrows(IllegalArgumentException.class, () -> new CodigoPix(DADOS, idInvalido));
+    }
+
+    @Test
+    void crcChecksum() {
+        final var parcial = CODIGO.substring(0, CODIGO.length() - 4);
+        assertEquals("77F1", CodigoPix.crcChecksum(parcial));
+    }
+
+    @Test
+    void strLenLeftPadded() {
+        assertEquals("05", CodigoPix.strLenLeftPadded("abcde"));
+        final var strInvalidLen = "a".repeat(100);
+        assertThrows(IllegalArgumentException.class, () -> CodigoPix.strLenLeftPadded(strInvalidLen));
+    }
+
+    @Test
+    void generateDinamico() {
+        final var dados = new DadosPixDinamico("Manoel", "https://pix.example.com/qr/v2/9d36b84f-c70b-478f-b95c-12729b90ca25", "Palmas");
+        final var esperado = "00020101021226800014BR.GOV.BCB.PIX2558pix.example.com/qr/v2/9d36b84f-c70b-478f-b95c-12729b90ca25" +
+                             "5204000053039865802BR5906Manoel6006Palmas62070503***630454CB";
+        final var codigoPix = new CodigoPix(dados);
+        assertTrue(codigoPix.isDinamico());
+        assertEquals(esperado, codigoPix.generate());
+        assertFalse(new CodigoPix(DADOS).isDinamico());
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de validação dos campos de {@link DadosPixDinamico}.
+ * @author Manoel Campos da Silva Filho
+ */
+class DadosPixDinamicoTest {
+    private static final String URL = "pix.example.com/qr/v2/cobv/123";
+
+    @Test
+    void removeHttpsEEspacos() {
+        final var dados = new DadosPixDinamico(" Manoel ", " HTTPS://" + URL + " ", " Palmas ");
+        assertEquals("Manoel", dados.nomeDestinatario());
+        assertEquals(URL, dados.urlLocalizacao());
+        assertEquals("Palmas", dados.cidadeRemetente());
+    }
+
+    @Test
+    void urlNoLimite() {
+        final var url = "a".repeat(77);
+        assertEquals(url, new DadosPixDinamico("Manoel", "https://" + url, "Palmas").urlLocalizacao());
+    }
+
+    @Test
+    void urlMuitoGrande() {
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("Manoel", "a".repeat(78), "Palmas"));
+    }
+
+    @Test
+    void urlSemHttps() {
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("Manoel", "http://" + URL, "Palmas"));
+    }
+
+    @Test
+    void urlComCaracteresInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("Manoel", "pix.example.com/qr v2", "Palmas"));
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("Manoel", "pix.example.com/cobrança", "Palmas"));
+    }
+
+    @Test
+    void camposObrigatorios() {
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico(" ", URL, "Palmas"));
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("Manoel", "https://", "Palmas"));
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("Manoel", URL, ""));
+        assertThrows(NullPointerException.class, () -> new DadosPixDinamico("Manoel", null, "Palmas"));
+    }
+
+    @Test
+    void nomeECidadeMuitoGrandes() {
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("a".repeat(26), URL, "Palmas"));
+        assertThrows(IllegalArgumentException.class, () -> new DadosPixDinamico("Manoel", URL, "a".repeat(16)));
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link GeradorIdTransacao}.
+ * @author Manoel Campos da Silva Filho
+ */
+class GeradorIdTransacaoTest {
+    private final GeradorIdTransacao instance = new GeradorIdTransacao(1);
+
+    @Test
+    void proximoTamanhoEFormato() {
+        final var id = instance.proximo();
+        assertEquals(GeradorIdTransacao.TAMANHO, id.length());
+        assertTrue(id.matches("[0-9A-Z]+"), id);
+    }
+
+    @Test
+    void proximoUnicoEntreThreads() {
+        final Set<String> ids = ConcurrentHashMap.newKeySet();
+        final int threads = 8;
+        final int idsPorThread = 10_000;
+        IntStream.range(0, threads).parallel().forEach(t -> {
+            for (int i = 0; i < idsPorThread; i++)
+                ids.add(instance.proximo());
+        });
+
+        assertEquals(threads * idsPorThread, ids.size());
+    }
+
+    @Test
+    void proximoUnicoEntreNos() {
+        final var outroNo = new GeradorIdTransacao(2);
+        assertNotEquals(instance.proximo(), outroNo.proximo());
+    }
+
+    @Test
+    void proximoEmStringBuilder() {
+        final var sb = new StringBuilder("0525");
+        final var primeiro = instance.proximo(sb).substring(4);
+        assertTrue(primeiro.matches("[0-9A-Z]{25}"));
+        assertNotEquals(primeiro, instance.proximo());
+    }
+
+    @Test
+    void idNoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new GeradorIdTransacao(-1));
+        assertThrows(IllegalArgumentException.class, () -> new GeradorIdTransacao(GeradorIdTransacao.MAX_ID_NO + 1));
+    }
+
+    @Test
+    void codigoPixComGerador() {
+        final var dados = new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas");
+        final var codigo = new CodigoPix(dados, instance).generate();
+        assertTrue(codigo.contains("0525"), codigo);
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.competeaqui.pix;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Mede o tempo de partida a frio até a geração do primeiro código PIX, usando apenas o módulo core.
+ * Deve ser executado em uma nova JVM a cada medição (não é um teste JUnit).
+ *
+ * <p>O início é obtido do instante em que o processo foi criado, ou de um instante em nanossegundos
+ * desde a época Unix passado como argumento (mais preciso), como em:</p>
+ * <pre>
+ * java -cp qrcode-pix-core/target/classes:qrcode-pix-core/target/test-classes br.com.competeaqui.pix.InicializacaoBenchmark $(date +%s%N)
+ * </pre>
+ *
+ * <p>Veja no README como usar um arquivo AppCDS ou o native-image do GraalVM para reduzir esse tempo.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+class InicializacaoBenchmark {
+    public static void main(final String[] args) {
+        final Instant inicioMain = Instant.now();
+        final var dados = new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas");
+        final var codigo = new CodigoPix(dados).generate();
+        final Instant fim = Instant.now();
+
+        final Instant inicioProcesso = args.length > 0 ? instante(Long.parseLong(args[0])) : ProcessHandle.current().info().startInstant().orElse(inicioMain);
+        System.out.println(codigo);
+        System.out.printf(
+                Locale.ROOT, "Partida até o main: %d ms | main até o primeiro código: %d ms | Total: %d ms%n",
+                Duration.between(inicioProcesso, inicioMain).toMillis(),
+                Duration.between(inicioMain, fim).toMillis(),
+                Duration.between(inicioProcesso, fim).toMillis());
+    }
+
+    private static Instant instante(final long nanosDesdeEpoca) {
+        return Instant.ofEpochSecond(0, nanosDesdeEpoca);
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link LeitorCodigoPix}.
+ * @author Manoel Campos da Silva Filho
+ */
+class LeitorCodigoPixTest {
+    private static final String CODIGO = new CodigoPix(new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas")).generate();
+
+    @Test
+    void ler() {
+        final var lido = LeitorCodigoPix.ler(CODIGO);
+        final var dados = lido.dados();
+        assertEquals("Manoel", dados.nomeDestinatario());
+        assertEquals("11111111111", dados.chaveDestinatario());
+        assertEquals(new BigDecimal("1.00"), dados.valor());
+        assertEquals("Palmas", dados.cidadeRemetente());
+        assertEquals("", dados.descricao());
+        assertEquals(CodigoPix.ID_TRANSACAO_VAZIO, lido.idTransacao());
+    }
+
+    @Test
+    void lerEGerarNovamente() {
+        final var dados = new DadosEnvioPix(
+                "Manoel Campos da Silva Fh", "manoelcampos@gmail.com",
+                new BigDecimal("1234.5"), "Palmas", "PIX em Java");
+        final var codigo = new CodigoPix(dados, "TX0001").generate();
+
+        final var lido = LeitorCodigoPix.ler(codigo);
+        assertEquals("PIX em Java", lido.dados().descricao());
+        assertEquals("TX0001", lido.idTransacao());
+        assertEquals(codigo, lido.codigoPix().generate());
+    }
+
+    @Test
+    void crcValido() {
+        assertTrue(LeitorCodigoPix.crcValido(CODIGO));
+        assertTrue(LeitorCodigoPix.crcValido(CODIGO.substring(0, CODIGO.length() - 4) + CODIGO.substring(CODIGO.length() - 4).toLowerCase()));
+        assertFalse(LeitorCodigoPix.crcValido(CODIGO.replace("Manoel", "Manuel")));
+        assertFalse(LeitorCodigoPix.crcValido(CODIGO.substring(0, CODIGO.length() - 8)));
+        assertFalse(LeitorCodigoPix.crcValido(""));
+    }
+
+    @Test
+    void lerCrcInvalido() {
+        final var exception = assertThrows(IllegalArgumentException.class, () -> LeitorCodigoPix.ler(CODIGO.replace("Manoel", "Manuel")));
+        assertTrue(exception.getMessage().contains("CRC16"));
+    }
+
+    @Test
+    void lerNaoPix() {
+        final var codigo = comCrc("00020126270014BR.GOV.BCB.XYZ0105123455204000053039865404" +
+                                  "1.005802BR5906Manoel6006Palmas62070503***");
+        final var exception = assertThrows(IllegalArgumentException.class, () -> LeitorCodigoPix.ler(codigo));
+        assertTrue(exception.getMessage().contains("não é um PIX"));
+    }
+
+    @Test
+    void lerSemValor() {
+        final var codigo = comCrc("00020126370014BR.GOV.BCB.PIX0111111111111110200520400005303986" +
+                                  "5802BR5906Manoel6006Palmas62070503***");
+        final var exception = assertThrows(IllegalArgumentException.class, () -> LeitorCodigoPix.ler(codigo));
+        assertTrue(exception.getMessage().contains("54"));
+    }
+
+    @Test
+    void lerCampoMalFormado() {
+        assertThrows(IllegalArgumentException.class, () -> LeitorCodigoPix.ler(comCrc("000201269914BR")));
+        assertThrows(IllegalArgumentException.class, () -> LeitorCodigoPix.ler(comCrc("0002012")));
+    }
+
+    @Test
+    void lerDinamico() {
+        final var dados = new DadosPixDinamico("Manoel", "pix.example.com/qr/v2/cobv/123", "Palmas");
+        final var codigo = new CodigoPix(dados).generate();
+
+        assertTrue(LeitorCodigoPix.isDinamico(codigo));
+        assertFalse(LeitorCodigoPix.isDinamico(CODIGO));
+        assertEquals(dados, LeitorCodigoPix.lerDinamico(codigo));
+
+        final var exception = assertThrows(IllegalArgumentException.class, () -> LeitorCodigoPix.ler(codigo));
+        assertTrue(exception.getMessage().contains("dinâmico"));
+        assertThrows(IllegalArgumentException.class, () -> LeitorCodigoPix.lerDinamico(CODIGO));
+    }
+
+    private static String comCrc(final String codigoParcial) {
+        final var codigo = codigoParcial + CodigoPix.COD_CRC;
+        return codigo + CodigoPix.crcChecksum(codigo);
+    }
+}
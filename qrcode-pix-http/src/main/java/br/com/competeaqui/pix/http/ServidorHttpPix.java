@@ -0,0 +1,458 @@
+package br.com.competeaqui.pix.http;
+
+import br.com.competeaqui.pix.AquecimentoPix;
+import br.com.competeaqui.pix.DadosEnvioPix;
+import br.com.competeaqui.pix.DadosPixDinamico;
+import br.com.competeaqui.pix.LeitorCodigoPix;
+import br.com.competeaqui.pix.PoolRenderizacao;
+import br.com.competeaqui.pix.QRCodePix;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Servidor HTTP embutido, baseado no {@link HttpServer} do JDK, que gera QRCodes PIX.
+ *
+ * <p>Os endpoints abaixo aceitam requisições GET e HEAD (com os dados na query string)
+ * ou POST (com os dados em um objeto JSON no corpo da requisição):</p>
+ * <ul>
+ *     <li>{@code /pix/codigo}: retorna o código PIX "Copia e Cola" como texto;</li>
+ *     <li>{@code /pix/png}: retorna a imagem PNG do QRCode;</li>
+ *     <li>{@code /pix/svg}: retorna a imagem SVG do QRCode.</li>
+ * </ul>
+ *
+ * <p>Os parâmetros têm os mesmos nomes dos campos de {@link DadosEnvioPix}
+ * ({@code nomeDestinatario}, {@code chaveDestinatario}, {@code valor}, {@code cidadeRemetente}
+ * e {@code descricao}), além do {@code idTransacao} opcional.
+ * Para gerar um PIX dinâmico, informe os campos de {@link DadosPixDinamico}
+ * ({@code nomeDestinatario}, {@code urlLocalizacao} e {@code cidadeRemetente}).</p>
+ *
+ * <p>As respostas incluem um ETag forte derivado do código PIX gerado, do formato e da
+ * {@link #VERSAO_REPRESENTACAO versão da representação}, que muda sempre que os bytes gerados para um formato mudam.
+ * Se o cliente enviar o mesmo ETag no cabeçalho {@code If-None-Match} em uma requisição GET ou HEAD,
+ * o servidor responde 304 sem gerar a imagem novamente (ou 412, em uma requisição POST).</p>
+ *
+ * <p>O corpo de requisições POST é limitado a {@value #MAX_CORPO_BYTES} bytes; requisições maiores recebem 413.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+public final class ServidorHttpPix implements Closeable {
+    /**
+     * Porta usada quando nenhuma é informada ao executar o servidor pela linha de comando.
+     */
+    public static final int PORTA_PADRAO = 8080;
+
+    /**
+     * Prefixo dos caminhos de todos os endpoints.
+     */
+    public static final String CONTEXTO = "/pix/";
+
+    /**
+     * Propriedade do {@link HttpServer} do JDK que habilita o TCP_NODELAY nas conexões.
+     */
+    private static final String PROPRIEDADE_NO_DELAY = "sun.net.httpserver.nodelay";
+
+    private static final String CACHE_CONTROL = "public, max-age=86400";
+
+    /**
+     * Versão das representações geradas pelo servidor, incluída no ETag.
+     * Deve ser alterada sempre que os bytes gerados para um mesmo código mudarem em algum formato
+     * (como ao mudar o codificador das imagens), pois um ETag forte deve identificar exatamente um conteúdo.
+     * Versão 2: imagens PNG codificadas em preto e branco (1 bit por pixel) pelo {@link PoolRenderizacao}.
+     */
+    static final String VERSAO_REPRESENTACAO = "2";
+
+    /**
+     * Tamanho máximo do corpo de uma requisição POST, bem maior que o necessário para os parâmetros aceitos.
+     */
+    static final int MAX_CORPO_BYTES = 4096;
+
+    /**
+     * Prefixo que indica um ETag fraco.
+     */
+    private static final String PREFIXO_ETAG_FRACO = "W/";
+
+    /**
+     * Parâmetro com o id da transação, que não faz parte de {@link DadosEnvioPix}.
+     */
+    private static final String PARAM_ID_TRANSACAO = "idTransacao";
+
+    /**
+     * Parâmetro que indica um PIX dinâmico, com a URL de localização da cobrança.
+     */
+    private static final String PARAM_URL_LOCALIZACAO = "urlLocalizacao";
+
+    /**
+     * Recursos reutilizados para gerar as imagens PNG, compartilhados por todos os servidores.
+     */
+    private static final PoolRenderizacao POOL_PNG = new PoolRenderizacao(Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final Map<String, Formato> FORMATOS = Map.of(
+            "codigo", new Formato("codigo", "text/plain; charset=utf-8", (exchange, qrCode) -> responder(exchange, qrCode.toString().getBytes(StandardCharsets.UTF_8))),
+            "png", new Formato("png", "image/png", ServidorHttpPix::responderPng),
+            "svg", new Formato("svg", "image/svg+xml", (exchange, qrCode) -> responder(exchange, qrCode.getSvg().getBytes(StandardCharsets.UTF_8))));
+
+    /**
+     * Um formato de resposta.
+     * @param nome nome do formato, usado no caminho do endpoint
+     * @param contentType tipo do conteúdo retornado
+     * @param renderizador envia o status e o corpo da resposta a partir de um QRCode cujo código já foi gerado
+     */
+    private record Formato(String nome, String contentType, Renderizador renderizador) {}
+
+    @FunctionalInterface
+    private interface Renderizador {
+        void responder(HttpExchange exchange, QRCodePix qrCode) throws IOException;
+    }
+
+    private final HttpServer server;
+
+    /**
+     * Executor criado pelo próprio servidor, que deve ser finalizado no {@link #close()},
+     * ou null se o executor foi informado por quem criou o servidor.
+     */
+    private final ExecutorService executorInterno;
+
+    /**
+     * Cria e inicia um servidor que processa as requisições em um pool de threads
+     * com uma thread por CPU.
+     * @param porta porta onde o servidor vai escutar (0 para escolher uma porta livre)
+     * @throws UncheckedIOException se não for possível iniciar o servidor na porta indicada
+     */
+    public ServidorHttpPix(final int porta) {
+        this(new InetSocketAddress(porta), null);
+    }
+
+    /**
+     * Cria e inicia um servidor.
+     * @param endereco endereço onde o servidor vai escutar
+     * @param executor executor que processa as requisições
+     *                 (como {@code Executors.newVirtualThreadPerTaskExecutor()} a partir do JDK 21),
+     *                 ou null para usar um pool com uma thread por CPU.
+     *                 Um executor informado aqui não é finalizado pelo {@link #close()}.
+     * @throws UncheckedIOException se não for possível iniciar o servidor no endereço indicado
+     */
+    public ServidorHttpPix(final InetSocketAddress endereco, final ExecutorService executor) {
+        this.executorInterno = executor == null ? Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()) : null;
+        try {
+            this.server = HttpServer.create(requireNonNull(endereco), 0);
+        } catch (IOException e) {
+            if(executorInterno != null)
+                executorInterno.shutdown();
+            throw new UncheckedIOException(e);
+        }
+
+        server.setExecutor(executor == null ? executorInterno : executor);
+        server.createContext(CONTEXTO, this::processar);
+        server.start();
+    }
+
+    /**
+     * {@return a porta onde o servidor está escutando}
+     */
+    public int porta() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Para o servidor imediatamente.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        if(executorInterno != null)
+            executorInterno.shutdown();
+    }
+
+    private void processar(final HttpExchange exchange) throws IOException {
+        try(exchange) {
+            final var metodo = exchange.getRequestMethod();
+            if(!"GET".equals(metodo) && !"HEAD".equals(metodo) && !"POST".equals(metodo)) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD, POST");
+                responderErro(exchange, 405, "Método %s não suportado.".formatted(metodo));
+                return;
+            }
+
+            final var formato = FORMATOS.get(exchange.getRequestURI().getPath().substring(CONTEXTO.length()));
+            if(formato == null) {
+                responderErro(exchange, 404, "Endpoint não encontrado. Use %s.".formatted(FORMATOS.keySet()));
+                return;
+            }
+
+            final QRCodePix qrCode;
+            try {
+                qrCode = newQRCodePix("POST".equals(metodo) ? parametrosJson(exchange) : parametrosQuery(exchange));
+                qrCode.generate();
+            } catch (CorpoMuitoGrandeException e) {
+                responderErro(exchange, 413, e.getMessage());
+                return;
+            } catch (IllegalArgumentException | NullPointerException | JSONException e) {
+                responderErro(exchange, 400, "Parâmetros inválidos: " + e.getMessage());
+                return;
+            }
+
+            responder(exchange, formato, qrCode);
+        }
+    }
+
+    /**
+     * Responde com o QRCode no formato indicado, ou com 304 se o cliente já possui a versão atual.
+     */
+    private static void responder(final HttpExchange exchange, final Formato formato, final QRCodePix qrCode) throws IOException {
+        final var etag = etag(formato.nome(), qrCode.toString());
+        final var headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", CACHE_CONTROL);
+
+        /* Respostas sem corpo finalizam a troca antes do close(), assim o corpo da requisição
+         * precisa ser consumido aqui para que o HttpServer mantenha a conexão aberta (keep-alive). */
+        exchange.getRequestBody().close();
+        if(etagCorresponde(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            // A RFC 9110 (seção 13.1.2) só permite 304 para GET e HEAD; para outros métodos, a pré-condição falhou
+            final var metodo = exchange.getRequestMethod();
+            exchange.sendResponseHeaders("GET".equals(metodo) || "HEAD".equals(metodo) ? 304 : 412, -1);
+            return;
+        }
+
+        headers.set("Content-Type", formato.contentType());
+        if("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+
+        formato.renderizador().responder(exchange, qrCode);
+    }
+
+    private static void responder(final HttpExchange exchange, final byte[] corpo) throws IOException {
+        exchange.sendResponseHeaders(200, corpo.length);
+        exchange.getResponseBody().write(corpo);
+    }
+
+    /**
+     * Envia a imagem PNG diretamente do buffer do {@link #POOL_PNG}, sem copiá-la.
+     */
+    private static void responderPng(final HttpExchange exchange, final QRCodePix qrCode) throws IOException {
+        try(final var imagem = POOL_PNG.renderizarPng(qrCode)) {
+            exchange.sendResponseHeaders(200, imagem.tamanho());
+            imagem.escrever(exchange.getResponseBody());
+        }
+    }
+
+    private static void responderErro(final HttpExchange exchange, final int status, final String mensagem) throws IOException {
+        final byte[] corpo = mensagem.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, corpo.length);
+        exchange.getResponseBody().write(corpo);
+    }
+
+    /**
+     * Gera um ETag forte a partir do código PIX, do formato da resposta e da {@link #VERSAO_REPRESENTACAO},
+     * pois, em uma mesma versão, o mesmo código sempre gera o mesmo conteúdo em um determinado formato.
+     */
+    static String etag(final String formato, final String codigo) {
+        return etag(VERSAO_REPRESENTACAO, formato, codigo);
+    }
+
+    static String etag(final String versao, final String formato, final String codigo) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(versao.getBytes(StandardCharsets.UTF_8));
+            digest.update(formato.getBytes(StandardCharsets.UTF_8));
+            final byte[] hash = digest.digest(codigo.getBytes(StandardCharsets.UTF_8));
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 18)) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Verifica se o valor do cabeçalho If-None-Match (que pode conter vários ETags) inclui o ETag atual.
+     * Usa a comparação fraca exigida para esse cabeçalho (RFC 9110, seção 13.1.2), ignorando o prefixo W/,
+     * que proxies e CDNs adicionam ao ETag quando alteram a representação (como ao comprimi-la).
+     */
+    static boolean etagCorresponde(final String ifNoneMatch, final String etag) {
+        if(ifNoneMatch == null)
+            return false;
+
+        final var etagForte = semPrefixoFraco(etag);
+        for (final String valor : ifNoneMatch.split(",")) {
+            final var candidato = valor.trim();
+            if(candidato.equals("*") || semPrefixoFraco(candidato).equals(etagForte))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static String semPrefixoFraco(final String etag) {
+        return etag.startsWith(PREFIXO_ETAG_FRACO) ? etag.substring(PREFIXO_ETAG_FRACO.length()) : etag;
+    }
+
+    private static QRCodePix newQRCodePix(final Map<String, String> params) {
+        final var urlLocalizacao = params.get(PARAM_URL_LOCALIZACAO);
+        if(urlLocalizacao != null)
+            return new QRCodePix(new DadosPixDinamico(params.get("nomeDestinatario"), urlLocalizacao, params.get("cidadeRemetente")));
+
+        final var valor = params.get("valor");
+        final var dados = new DadosEnvioPix(
+                params.get("nomeDestinatario"), params.get("chaveDestinatario"),
+                new BigDecimal(requireNonNull(valor, "valor é obrigatório")),
+                params.get("cidadeRemetente"), params.getOrDefault("descricao", ""));
+
+        final var idTransacao = params.get(PARAM_ID_TRANSACAO);
+        return idTransacao == null || idTransacao.isBlank() ? new QRCodePix(dados) : new QRCodePix(dados, idTransacao);
+    }
+
+    private static Map<String, String> parametrosQuery(final HttpExchange exchange) {
+        return parametrosQuery(exchange.getRequestURI().getRawQuery());
+    }
+
+    /**
+     * Separa os parâmetros de uma query string ainda codificada (como em {@code a=1&b=x%20y}).
+     * @param query a query string, ou null se a requisição não tiver uma
+     */
+    static Map<String, String> parametrosQuery(final String query) {
+        final var params = new HashMap<String, String>();
+        if(query == null)
+            return params;
+
+        for (final String par : query.split("&")) {
+            final int i = par.indexOf('=');
+            final var nome = URLDecoder.decode(i < 0 ? par : par.substring(0, i), StandardCharsets.UTF_8);
+            final var valor = i < 0 ? "" : URLDecoder.decode(par.substring(i + 1), StandardCharsets.UTF_8);
+            params.put(nome, valor);
+        }
+
+        return params;
+    }
+
+    /**
+     * Lê os parâmetros do objeto JSON no corpo da requisição, sem ler mais que {@value #MAX_CORPO_BYTES} bytes.
+     * @throws CorpoMuitoGrandeException se o corpo exceder o tamanho máximo
+     */
+    private static Map<String, String> parametrosJson(final HttpExchange exchange) throws IOException {
+        final byte[] corpo = exchange.getRequestBody().readNBytes(MAX_CORPO_BYTES + 1);
+        if(corpo.length > MAX_CORPO_BYTES)
+            throw new CorpoMuitoGrandeException();
+
+        return parametrosJson(new String(corpo, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Separa os parâmetros de um objeto JSON. Parâmetros com valor null são considerados omitidos.
+     * @throws IllegalArgumentException se algum parâmetro não tiver um valor simples (texto, número ou booleano)
+     * @throws JSONException se o JSON for inválido
+     */
+    static Map<String, String> parametrosJson(final String corpo) {
+        final var json = new JSONObject(corpo);
+        final var params = new HashMap<String, String>();
+        for (final String nome : json.keySet()) {
+            final var valor = json.get(nome);
+            if(JSONObject.NULL.equals(valor))
+                continue;
+            if(valor instanceof JSONObject || valor instanceof JSONArray)
+                throw new IllegalArgumentException("O parâmetro %s deve ser um texto, número ou booleano.".formatted(nome));
+
+            params.put(nome, valor.toString());
+        }
+
+        return params;
+    }
+
+    /**
+     * Indica que o corpo da requisição excede {@value #MAX_CORPO_BYTES} bytes.
+     */
+    private static final class CorpoMuitoGrandeException extends IllegalArgumentException {
+        CorpoMuitoGrandeException() {
+            super("O corpo da requisição excede %d bytes.".formatted(MAX_CORPO_BYTES));
+        }
+    }
+
+    /**
+     * Executa, para um QRCode gerado pelo {@link AquecimentoPix}, os caminhos do servidor que não dependem
+     * de uma conexão: leitura dos parâmetros por query string e JSON, criação do QRCode e cálculo e comparação
+     * dos ETags de cada formato. A imagem PNG e o SVG são aquecidos pelo próprio {@link AquecimentoPix}.
+     * @param qrCodePix QRCode com o código já gerado
+     * @throws IllegalStateException se os parâmetros lidos não gerarem o mesmo código
+     */
+    static void aquecer(final QRCodePix qrCodePix) {
+        final var codigo = qrCodePix.toString();
+        final var params = new HashMap<String, String>();
+        if(LeitorCodigoPix.isDinamico(codigo)) {
+            final var dados = LeitorCodigoPix.lerDinamico(codigo);
+            params.put("nomeDestinatario", dados.nomeDestinatario());
+            params.put(PARAM_URL_LOCALIZACAO, dados.urlLocalizacao());
+            params.put("cidadeRemetente", dados.cidadeRemetente());
+        } else {
+            final var lido = LeitorCodigoPix.ler(codigo);
+            final var dados = lido.dados();
+            params.put("nomeDestinatario", dados.nomeDestinatario());
+            params.put("chaveDestinatario", dados.chaveDestinatario());
+            params.put("valor", dados.valorStr());
+            params.put("cidadeRemetente", dados.cidadeRemetente());
+            params.put("descricao", dados.descricao());
+            params.put(PARAM_ID_TRANSACAO, lido.idTransacao());
+        }
+
+        final var query = new StringBuilder();
+        params.forEach((nome, valor) -> query.append(query.isEmpty() ? "" : "&")
+                                             .append(nome).append('=').append(URLEncoder.encode(valor, StandardCharsets.UTF_8)));
+        final var doJson = newQRCodePix(parametrosJson(new JSONObject(params).toString())).generate();
+        final var daQuery = newQRCodePix(parametrosQuery(query.toString())).generate();
+        if(!codigo.equals(doJson) || !codigo.equals(daQuery))
+            throw new IllegalStateException("Os parâmetros do aquecimento geraram um código diferente: " + codigo);
+
+        for (final String formato : FORMATOS.keySet()) {
+            final var etag = etag(formato, codigo);
+            if(!etagCorresponde(PREFIXO_ETAG_FRACO + etag, etag))
+                throw new IllegalStateException("ETag não corresponde a si mesmo: " + etag);
+        }
+    }
+
+    /**
+     * Habilita o TCP_NODELAY nos servidores criados a partir de então,
+     * caso a propriedade não tenha sido definida pela linha de comando.
+     */
+    static void habilitarNoDelay() {
+        if(System.getProperty(PROPRIEDADE_NO_DELAY) == null)
+            System.setProperty(PROPRIEDADE_NO_DELAY, "true");
+    }
+
+    /**
+     * Executa o servidor até o processo ser finalizado.
+     * Habilita o TCP_NODELAY do {@link HttpServer} (se não foi definido pela linha de comando),
+     * evitando que cabeçalhos e corpo enviados separadamente aguardem o ACK atrasado do cliente.
+     * @param args opcionalmente, a porta onde o servidor vai escutar (padrão {@value #PORTA_PADRAO})
+     */
+    public static void main(final String[] args) {
+        habilitarNoDelay();
+        final int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PADRAO;
+        // A porta só é aberta após o aquecimento, assim probes que verificam a conexão aguardam até lá.
+        final var aquecimento = new AquecimentoPix(2000, Duration.ofSeconds(30), POOL_PNG);
+        System.out.println(aquecimento.executar(ServidorHttpPix::aquecer));
+        final var servidor = new ServidorHttpPix(porta);
+        System.out.printf("Servidor PIX escutando em http://localhost:%d%s%n", servidor.porta(), CONTEXTO);
+    }
+}
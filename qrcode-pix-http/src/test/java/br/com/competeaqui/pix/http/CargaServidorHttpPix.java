@@ -0,0 +1,107 @@
+package br.com.competeaqui.pix.http;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste de carga para o {@link ServidorHttpPix}, executado localmente pela linha de comando.
+ *
+ * <p>Inicia o servidor em uma porta livre (ou usa um servidor já em execução, se uma URL for informada)
+ * e dispara requisições simultâneas por um determinado tempo.
+ * Parte dos clientes reenvia o ETag recebido, para medir o ganho das respostas 304.
+ * Ao final, exibe a vazão, os percentis de latência e a quantidade de respostas por status.</p>
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes:... br.com.competeaqui.pix.http.CargaServidorHttpPix [clientes] [segundos] [formato] [url]
+ * </pre>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+class CargaServidorHttpPix {
+    /**
+     * A cada quantas requisições um cliente descarta o ETag e força uma renderização completa.
+     */
+    private static final int REQUISICOES_POR_RENDERIZACAO = 10;
+
+    public static void main(final String[] args) throws Exception {
+        final int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        final int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final var formato = args.length > 2 ? args[2] : "png";
+
+        ServidorHttpPix.habilitarNoDelay();
+        final ServidorHttpPix servidor = args.length > 3 ? null : new ServidorHttpPix(0);
+        final var base = servidor == null ? args[3] : "http://localhost:%d%s".formatted(servidor.porta(), ServidorHttpPix.CONTEXTO);
+        System.out.printf("Carga em %s%s com %d clientes por %d segundos%n", base, formato, clientes, segundos);
+
+        final var client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(clientes)).build();
+        final var latencias = new ConcurrentLinkedQueue<Long>();
+        final var status200 = new AtomicInteger();
+        final var status304 = new AtomicInteger();
+        final var erros = new AtomicInteger();
+        final long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        for (int c = 0; c < clientes; c++) {
+            final int cliente = c;
+            executor.submit(() -> {
+                String etag = null;
+                for (long i = 0; System.nanoTime() < fim; i++) {
+                    // Cada cliente usa um valor diferente, para não compartilhar o mesmo ETag
+                    final var uri = URI.create(
+                            "%s%s?nomeDestinatario=Manoel&chaveDestinatario=11111111111&valor=%d.00&cidadeRemetente=Palmas"
+                            .formatted(base, formato, cliente + 1));
+                    final var builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30));
+                    if(etag != null && i % REQUISICOES_POR_RENDERIZACAO != 0)
+                        builder.header("If-None-Match", etag);
+
+                    final long inicio = System.nanoTime();
+                    try {
+                        final var response = client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+                        latencias.add(System.nanoTime() - inicio);
+                        switch (response.statusCode()) {
+                            case 200 -> status200.incrementAndGet();
+                            case 304 -> status304.incrementAndGet();
+                            default -> erros.incrementAndGet();
+                        }
+                        etag = response.headers().firstValue("ETag").orElse(null);
+                    } catch (Exception e) {
+                        erros.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(segundos + 60L, TimeUnit.SECONDS);
+        if(servidor != null)
+            servidor.close();
+
+        final long[] ordenadas = latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf(
+                Locale.ROOT,
+                "Requisições: %d (200: %d, 304: %d, erros: %d) | Vazão: %.1f req/s | Latência p50: %.3f ms p95: %.3f ms p99: %.3f ms%n",
+                ordenadas.length, status200.get(), status304.get(), erros.get(), ordenadas.length / (double) segundos,
+                percentilMs(ordenadas, 50), percentilMs(ordenadas, 95), percentilMs(ordenadas, 99));
+        System.exit(0);
+    }
+
+    private static double percentilMs(final long[] ordenadas, final double percentil) {
+        if(ordenadas.length == 0)
+            return 0;
+
+        final int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1_000_000.0;
+    }
+
+    private CargaServidorHttpPix() {/**/}
+}
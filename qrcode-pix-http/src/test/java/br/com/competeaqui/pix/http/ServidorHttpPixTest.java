@@ -0,0 +1,184 @@
+package br.com.competeaqui.pix.http;
+
+import br.com.competeaqui.pix.AquecimentoPix;
+import br.com.competeaqui.pix.DadosEnvioPix;
+import br.com.competeaqui.pix.QRCodePix;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link ServidorHttpPix}.
+ * @author Manoel Campos da Silva Filho
+ */
+class ServidorHttpPixTest {
+    private static final String QUERY = "?nomeDestinatario=Manoel&chaveDestinatario=11111111111&valor=1.0&cidadeRemetente=Palmas";
+
+    /**
+     * Código gerado para os mesmos dados da {@link #QUERY} e do {@link #JSON}.
+     */
+    private static final String QRCODE = new QRCodePix(new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas")).generate();
+
+    private static final String JSON = "{\"nomeDestinatario\": \"Manoel\", \"chaveDestinatario\": \"11111111111\", \"valor\": 1.0, \"cidadeRemetente\": \"Palmas\"}";
+
+    private static ServidorHttpPix servidor;
+    private static HttpClient client;
+
+    @BeforeAll
+    static void iniciar() {
+        servidor = new ServidorHttpPix(0);
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void parar() {
+        servidor.close();
+    }
+
+    @Test
+    void codigoGet() throws Exception {
+        final var response = get("codigo" + QUERY, null);
+        assertEquals(200, response.statusCode());
+        assertEquals(QRCODE, new String(response.body()));
+        assertTrue(response.headers().firstValue("ETag").isPresent());
+    }
+
+    @Test
+    void codigoPostJson() throws Exception {
+        final var request = HttpRequest.newBuilder(uri("codigo")).POST(HttpRequest.BodyPublishers.ofString(JSON)).build();
+        final var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(QRCODE, response.body());
+    }
+
+    @Test
+    void codigoDinamico() throws Exception {
+        final var response = get("codigo?nomeDestinatario=Manoel&cidadeRemetente=Palmas&urlLocalizacao=pix.example.com%2Fqr%2Fv2%2F123", null);
+        assertEquals(200, response.statusCode());
+        final var codigo = new String(response.body());
+        assertTrue(codigo.startsWith("000201010212"), codigo);
+        assertTrue(codigo.contains("2525pix.example.com/qr/v2/123"), codigo);
+    }
+
+    @Test
+    void pngRevalidacaoRetorna304() throws Exception {
+        final var response = get("png" + QUERY, null);
+        assertEquals(200, response.statusCode());
+        assertEquals("image/png", response.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals(300, ImageIO.read(new ByteArrayInputStream(response.body())).getWidth());
+
+        final var etag = response.headers().firstValue("ETag").orElseThrow();
+        final var revalidacao = get("png" + QUERY, etag);
+        assertEquals(304, revalidacao.statusCode());
+        assertEquals(0, revalidacao.body().length);
+        assertEquals(etag, revalidacao.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    void postComEtagCorrespondenteRetorna412() throws Exception {
+        final var etag = get("codigo" + QUERY, null).headers().firstValue("ETag").orElseThrow();
+        final var request = HttpRequest.newBuilder(uri("codigo"))
+                                       .header("If-None-Match", etag)
+                                       .POST(HttpRequest.BodyPublishers.ofString(JSON)).build();
+        assertEquals(412, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void postCorpoMuitoGrandeRetorna413() throws Exception {
+        final var json = "{\"descricao\": \"%s\"}".formatted("x".repeat(ServidorHttpPix.MAX_CORPO_BYTES));
+        final var request = HttpRequest.newBuilder(uri("codigo")).POST(HttpRequest.BodyPublishers.ofString(json)).build();
+        assertEquals(413, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void postJsonNullEValoresCompostos() throws Exception {
+        final var comNull = JSON.replace("}", ", \"idTransacao\": null}");
+        final var request = HttpRequest.newBuilder(uri("codigo")).POST(HttpRequest.BodyPublishers.ofString(comNull)).build();
+        final var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals(QRCODE, response.body());
+
+        final var composto = JSON.replace("}", ", \"descricao\": {\"a\": 1}}");
+        final var requestComposto = HttpRequest.newBuilder(uri("codigo")).POST(HttpRequest.BodyPublishers.ofString(composto)).build();
+        assertEquals(400, client.send(requestComposto, HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertFalse(ServidorHttpPix.parametrosJson("{\"idTransacao\": null}").containsKey("idTransacao"));
+    }
+
+    @Test
+    void etagIncluiVersaoDaRepresentacao() {
+        final var etag = ServidorHttpPix.etag("png", QRCODE);
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""), etag);
+        assertNotEquals(ServidorHttpPix.etag("svg", QRCODE), etag);
+        assertEquals(ServidorHttpPix.etag(ServidorHttpPix.VERSAO_REPRESENTACAO, "png", QRCODE), etag);
+        assertNotEquals(ServidorHttpPix.etag(ServidorHttpPix.VERSAO_REPRESENTACAO + "x", "png", QRCODE), etag);
+    }
+
+    @Test
+    void etagDiferentePorFormato() throws Exception {
+        final var etagPng = get("png" + QUERY, null).headers().firstValue("ETag").orElseThrow();
+        final var svg = get("svg" + QUERY, etagPng);
+        assertEquals(200, svg.statusCode());
+        assertTrue(new String(svg.body()).startsWith("<svg"));
+    }
+
+    @Test
+    void parametrosInvalidos() throws Exception {
+        assertEquals(400, get("codigo?nomeDestinatario=Manoel&valor=1.0", null).statusCode());
+        assertEquals(400, get("codigo" + QUERY.replace("1.0", "abc"), null).statusCode());
+    }
+
+    @Test
+    void endpointInexistente() throws Exception {
+        assertEquals(404, get("gif" + QUERY, null).statusCode());
+    }
+
+    @Test
+    void aquecer() {
+        final var resultado = new AquecimentoPix(100, Duration.ofMinutes(1)).executar(ServidorHttpPix::aquecer);
+        assertEquals(100, resultado.iteracoes());
+    }
+
+    @Test
+    void aquecerEParametros() {
+        final var dados = new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas", "Pedido 1");
+        final var qrCodePix = new QRCodePix(dados, "TX1");
+        qrCodePix.generate();
+        ServidorHttpPix.aquecer(qrCodePix);
+        assertEquals("TX1", ServidorHttpPix.parametrosQuery("idTransacao=TX1&descricao=Pedido%201").get("idTransacao"));
+        assertEquals("Pedido 1", ServidorHttpPix.parametrosJson("{\"descricao\": \"Pedido 1\"}").get("descricao"));
+    }
+
+    @Test
+    void etagCorresponde() {
+        assertTrue(ServidorHttpPix.etagCorresponde("\"a\", \"b\"", "\"b\""));
+        assertTrue(ServidorHttpPix.etagCorresponde("*", "\"b\""));
+        assertTrue(ServidorHttpPix.etagCorresponde("W/\"b\"", "\"b\""));
+        assertTrue(ServidorHttpPix.etagCorresponde("\"a\", W/\"b\"", "\"b\""));
+        assertFalse(ServidorHttpPix.etagCorresponde("W/\"a\"", "\"b\""));
+        assertFalse(ServidorHttpPix.etagCorresponde(null, "\"b\""));
+    }
+
+    private static HttpResponse<byte[]> get(final String caminho, final String ifNoneMatch) throws IOException, InterruptedException {
+        final var builder = HttpRequest.newBuilder(uri(caminho));
+        if(ifNoneMatch != null)
+            builder.header("If-None-Match", ifNoneMatch);
+
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static URI uri(final String caminho) {
+        return URI.create("http://localhost:%d%s%s".formatted(servidor.porta(), ServidorHttpPix.CONTEXTO, caminho));
+    }
+}
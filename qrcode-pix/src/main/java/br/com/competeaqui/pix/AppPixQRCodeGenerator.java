@@ -0,0 +1,186 @@
+package br.com.competeaqui.pix;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Ferramenta de linha de comando que gera QRCodes PIX "Copia e Cola" e/ou as devidas imagens
+ * em lote, a partir de registros lidos da entrada padrão ou de um arquivo.
+ * Este projeto foi baseado em uma biblioteca PHP disponível em
+ * <a href="https://github.com/renatomb/php_qrcode_pix">https://github.com/renatomb/php_qrcode_pix</a>.
+ *
+ * <p>Também verifica em lote se imagens arquivadas ainda contêm os códigos PIX registrados.
+ * Execute com {@code --ajuda} para ver as opções disponíveis.
+ * Ao final, são exibidas na saída de erro a vazão, os percentis de latência e a quantidade de erros.</p>
+ *
+ * @see GeradorLote
+ * @see VerificadorLote
+ * @see <a href="https://github.com/bacen/pix-api">Documentação oficial do PIX no repositório do Banco Central</a>
+ * @author Manoel Campos da Silva Filho
+ */
+class AppPixQRCodeGenerator {
+    /**
+     * Valor das opções de entrada/saída que indica o uso da entrada/saída padrão.
+     */
+    private static final String PADRAO = "-";
+
+    private static final String AJUDA =
+            """
+            Uso: AppPixQRCodeGenerator [opções]
+
+            Lê registros no formato nome;chave;valor;cidade[;descricao[;idTransacao]] (um por linha)
+            e gera o código PIX "Copia e Cola" e/ou a imagem do QRCode para cada um.
+
+            Opções:
+              -i, --entrada <arquivo>  arquivo com os registros (padrão: entrada padrão)
+              -o, --saida <destino>    pasta, arquivo .zip ou - para escrever os códigos na saída padrão (padrão: -)
+              -t, --threads <n>        quantidade de threads de processamento (padrão: quantidade de CPUs)
+              -m, --modo <modo>        codigo, imagem ou ambos (padrão: codigo para a saída padrão, imagem nos demais casos)
+              -f, --formato <formato>  formato das imagens (padrão: png)
+              -v, --verificar <origem> em vez de gerar, verifica as imagens de uma pasta ou arquivo .zip,
+                                       conferindo o CRC e o código registrado no .txt de mesmo nome (se existir)
+                  --exemplo            gera um QRCode de exemplo no arquivo qrcode.png
+              -h, --ajuda              exibe esta ajuda
+            """;
+
+    public static void main(String[] args) {
+        try {
+            System.exit(executar(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println();
+            System.err.print(AJUDA);
+            System.exit(2);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Erro de entrada/saída: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Executa a ferramenta com os argumentos informados.
+     * @return o código de saída: 0 se todos os registros foram processados, 1 se algum falhou
+     */
+    private static int executar(final String[] args) throws IOException {
+        String entrada = PADRAO;
+        String saida = PADRAO;
+        int threads = Runtime.getRuntime().availableProcessors();
+        GeradorLote.Modo modo = null;
+        String formato = "png";
+        String verificar = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-i", "--entrada" -> entrada = valor(args, ++i);
+                case "-o", "--saida" -> saida = valor(args, ++i);
+                case "-t", "--threads" -> threads = inteiro(args, ++i);
+                case "-m", "--modo" -> modo = modo(valor(args, ++i));
+                case "-f", "--formato" -> formato = valor(args, ++i);
+                case "-v", "--verificar" -> verificar = valor(args, ++i);
+                case "--exemplo" -> {
+                    exemplo();
+                    return 0;
+                }
+                case "-h", "--ajuda" -> {
+                    System.out.print(AJUDA);
+                    return 0;
+                }
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        if(verificar != null)
+            return verificar(Path.of(verificar), threads);
+
+        final boolean saidaPadrao = PADRAO.equals(saida);
+        if(modo == null)
+            modo = saidaPadrao ? GeradorLote.Modo.CODIGO : GeradorLote.Modo.IMAGEM;
+        if(saidaPadrao && modo != GeradorLote.Modo.CODIGO)
+            throw new IllegalArgumentException("A saída padrão só aceita o modo codigo. Informe uma pasta ou arquivo .zip em --saida.");
+
+        final var gerador = new GeradorLote(threads, modo, formato);
+        final EstatisticasLote estatisticas;
+        try(final var reader = reader(entrada); final var destino = destino(gerador, saida)) {
+            estatisticas = gerador.processar(reader, destino, System.err);
+        }
+
+        System.err.println(estatisticas);
+        return estatisticas.erros() == 0 ? 0 : 1;
+    }
+
+    /**
+     * Verifica as imagens de uma pasta ou arquivo ZIP, escrevendo as divergências na saída padrão.
+     * @return o código de saída: 0 se todas as imagens foram verificadas, 1 se alguma divergiu
+     */
+    private static int verificar(final Path origem, final int threads) throws IOException {
+        if(!Files.exists(origem))
+            throw new IllegalArgumentException("Origem não encontrada: " + origem);
+
+        final var estatisticas = new VerificadorLote(threads).verificar(origem, System.out);
+        System.err.println(estatisticas);
+        return estatisticas.erros() == 0 ? 0 : 1;
+    }
+
+    private static BufferedReader reader(final String entrada) throws IOException {
+        if(PADRAO.equals(entrada))
+            return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+
+        return Files.newBufferedReader(Path.of(entrada), StandardCharsets.UTF_8);
+    }
+
+    private static GeradorLote.Destino destino(final GeradorLote gerador, final String saida) throws IOException {
+        if(PADRAO.equals(saida))
+            return GeradorLote.destinoTexto(System.out);
+
+        final var path = Path.of(saida);
+        if(saida.toLowerCase(Locale.ROOT).endsWith(".zip"))
+            return gerador.destinoZip(Files.newOutputStream(path));
+
+        return gerador.destinoPasta(path);
+    }
+
+    private static String valor(final String[] args, final int i) {
+        if(i >= args.length)
+            throw new IllegalArgumentException("Faltou o valor da opção " + args[i - 1]);
+
+        return args[i];
+    }
+
+    private static int inteiro(final String[] args, final int i) {
+        try {
+            return Integer.parseInt(valor(args, i));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para a opção %s: %s".formatted(args[i - 1], args[i]), e);
+        }
+    }
+
+    private static GeradorLote.Modo modo(final String valor) {
+        try {
+            return GeradorLote.Modo.valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo inválido: %s. Use codigo, imagem ou ambos.".formatted(valor), e);
+        }
+    }
+
+    /**
+     * Gera um QRCode de exemplo e salva a imagem no arquivo qrcode.png da pasta atual.
+     */
+    private static void exemplo() {
+        final var imagePath = "qrcode.png";
+
+        final var dadosPix =
+                new DadosEnvioPix(
+                        "Manoel Campos da Silva Fh", "manoelcampos@gmail.com",
+                        new BigDecimal("1.0"), "Palmas", "PIX em Java");
+
+        final var qrCodePix = new QRCodePix(dadosPix);
+        qrCodePix.save(Path.of(imagePath));
+        System.out.println("QRCode:");
+        System.out.println(qrCodePix);
+        System.out.printf("%nArquivo gerado em " + imagePath);
+    }
+}
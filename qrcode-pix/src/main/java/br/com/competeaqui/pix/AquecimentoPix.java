@@ -0,0 +1,249 @@
+package br.com.competeaqui.pix;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aquece a aplicação antes que ela comece a receber requisições, evitando que as primeiras gerações
+ * de QRCodes sejam muito mais lentas que as demais.
+ *
+ * <p>Na primeira geração, o ImageIO procura os plugins de imagem, o AWT é inicializado e as classes
+ * do zxing são carregadas. Nas centenas seguintes, o JIT ainda está compilando os métodos mais usados.
+ * O {@link #executar()} inicializa esses componentes e então gera QRCodes sintéticos em rodadas,
+ * até que o tempo médio de uma rodada se estabilize ou algum dos limites seja atingido.
+ * Cada QRCode passa pelos caminhos de geração desta biblioteca: código estático e dinâmico, leitura do código,
+ * imagens nos formatos indicados, SVG, {@link ImagemBase64}, {@link FolhaQRCodes} e o {@link PoolRenderizacao}
+ * usado pela aplicação. Os caminhos da própria aplicação (como os do servidor HTTP) podem ser incluídos
+ * por meio de uma etapa adicional, passada ao {@link #executar(Consumer)}.</p>
+ *
+ * <p>O {@link Resultado} informa quanto tempo o aquecimento levou, permitindo que
+ * a aplicação só indique estar pronta (como para um readiness probe) depois dele:</p>
+ *
+ * <pre>{@code
+ * final var resultado = new AquecimentoPix(2000, Duration.ofSeconds(30), pool, "png").executar();
+ * log.info(resultado.toString());
+ * }</pre>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+public final class AquecimentoPix {
+    /**
+     * Quantidade de QRCodes gerados em cada rodada, cujo tempo médio é comparado com o da rodada anterior.
+     */
+    static final int ITERACOES_POR_RODADA = 50;
+
+    /**
+     * Variação máxima do tempo médio entre rodadas consecutivas para considerá-las estáveis.
+     */
+    private static final double VARIACAO_ESTAVEL = 0.10;
+
+    /**
+     * Quantidade de rodadas estáveis consecutivas para encerrar o aquecimento.
+     */
+    private static final int RODADAS_ESTAVEIS = 2;
+
+    private static final double NANOS_POR_MILI = 1_000_000.0;
+
+    /**
+     * Layout de uma folha com um único QRCode, pequena para que a composição não domine o tempo de cada iteração.
+     */
+    private static final LayoutFolha LAYOUT_FOLHA = new LayoutFolha(40, 40, 300, 1, 1, 2);
+
+    /**
+     * Resultado do aquecimento.
+     * @param inicializacaoNanos tempo gasto para inicializar ImageIO, AWT e zxing
+     * @param totalNanos tempo total do aquecimento, incluindo a inicialização
+     * @param iteracoes quantidade de QRCodes sintéticos gerados
+     * @param mediaFinalNanos tempo médio de um QRCode na última rodada
+     * @param estavel true se o tempo médio se estabilizou, false se o aquecimento terminou por atingir um limite
+     */
+    public record Resultado(long inicializacaoNanos, long totalNanos, int iteracoes, long mediaFinalNanos, boolean estavel) {
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.ROOT,
+                    "Aquecimento: %.1f ms (inicialização: %.1f ms) | Iterações: %d | Média final: %.3f ms | %s",
+                    totalNanos / NANOS_POR_MILI, inicializacaoNanos / NANOS_POR_MILI, iteracoes,
+                    mediaFinalNanos / NANOS_POR_MILI, estavel ? "estável" : "limite atingido antes de estabilizar");
+        }
+    }
+
+    private final int maxIteracoes;
+    private final Duration tempoMaximo;
+    private final PoolRenderizacao pool;
+    private final List<String> formatos;
+
+    /**
+     * Fornece o instante atual em nanossegundos, usado para medir as rodadas.
+     */
+    private final LongSupplier relogio;
+
+    /**
+     * Evita que o JIT descarte o trabalho das iterações por considerar que os resultados não são usados.
+     */
+    private long sumidouro;
+
+    /**
+     * Cria um aquecimento que gera imagens PNG por até 2000 iterações ou 30 segundos,
+     * usando um {@link PoolRenderizacao} próprio.
+     */
+    public AquecimentoPix() {
+        this(2000, Duration.ofSeconds(30), "png");
+    }
+
+    /**
+     * Cria um aquecimento que usa um {@link PoolRenderizacao} próprio.
+     * @param maxIteracoes quantidade máxima de QRCodes sintéticos gerados
+     * @param tempoMaximo tempo máximo do aquecimento (verificado ao final de cada rodada)
+     * @param formatos formatos das imagens usados pela aplicação (como png e jpg)
+     * @throws IllegalArgumentException se a quantidade de iterações for menor que 1
+     *                                  ou algum formato não for suportado pelo {@link ImageIO}
+     * @see #AquecimentoPix(int, Duration, PoolRenderizacao, String...)
+     */
+    public AquecimentoPix(final int maxIteracoes, final Duration tempoMaximo, final String... formatos) {
+        this(maxIteracoes, tempoMaximo, new PoolRenderizacao(1), formatos);
+    }
+
+    /**
+     * Cria um aquecimento.
+     * @param maxIteracoes quantidade máxima de QRCodes sintéticos gerados
+     * @param tempoMaximo tempo máximo do aquecimento (verificado ao final de cada rodada)
+     * @param pool pool usado pela aplicação para gerar imagens PNG, que terá recursos prontos para uso após o aquecimento
+     * @param formatos formatos das imagens geradas pela aplicação com {@link QRCodePix#getBytes(String)} (como png e jpg)
+     * @throws IllegalArgumentException se a quantidade de iterações for menor que 1
+     *                                  ou algum formato não for suportado pelo {@link ImageIO}
+     */
+    public AquecimentoPix(final int maxIteracoes, final Duration tempoMaximo, final PoolRenderizacao pool, final String... formatos) {
+        this(maxIteracoes, tempoMaximo, pool, System::nanoTime, formatos);
+    }
+
+    /**
+     * Cria um aquecimento que mede o tempo com um relógio específico, permitindo testar a estabilização.
+     * @param relogio fornece o instante atual em nanossegundos
+     * @see #AquecimentoPix(int, Duration, PoolRenderizacao, String...)
+     */
+    AquecimentoPix(
+        final int maxIteracoes, final Duration tempoMaximo, final PoolRenderizacao pool,
+        final LongSupplier relogio, final String... formatos)
+    {
+        if(maxIteracoes <= 0)
+            throw new IllegalArgumentException("A quantidade máxima de iterações deve ser maior que zero.");
+
+        for (final String formato : formatos) {
+            if(!ImageIO.getImageWritersByFormatName(formato).hasNext())
+                throw new IllegalArgumentException("Formato de imagem não suportado: %s".formatted(formato));
+        }
+
+        this.maxIteracoes = maxIteracoes;
+        this.tempoMaximo = requireNonNull(tempoMaximo);
+        this.pool = requireNonNull(pool);
+        this.relogio = requireNonNull(relogio);
+        this.formatos = List.of(formatos);
+    }
+
+    /**
+     * Executa o aquecimento na thread atual.
+     * @return o resultado, com o tempo gasto
+     * @see #executar(Consumer)
+     */
+    public Resultado executar() {
+        return executar(qrCodePix -> {});
+    }
+
+    /**
+     * Executa o aquecimento na thread atual, incluindo uma etapa da aplicação em cada iteração.
+     * @param etapaAdicional executada para cada QRCode sintético (estático ou dinâmico), com o código já gerado,
+     *                       para aquecer também os caminhos da aplicação que usam o QRCode
+     * @return o resultado, com o tempo gasto
+     */
+    public Resultado executar(final Consumer<QRCodePix> etapaAdicional) {
+        requireNonNull(etapaAdicional);
+        final long inicio = relogio.getAsLong();
+        inicializar();
+        final long inicializacaoNanos = relogio.getAsLong() - inicio;
+        final long limiteNanos = inicio + tempoMaximo.toNanos();
+
+        final var folha = new FolhaQRCodes(LAYOUT_FOLHA, QRCodePix::toString);
+        int iteracoes = 0;
+        int rodadasEstaveis = 0;
+        long mediaAnterior = 0;
+        long media = 0;
+        while (iteracoes < maxIteracoes && rodadasEstaveis < RODADAS_ESTAVEIS && relogio.getAsLong() < limiteNanos) {
+            final int rodada = Math.min(ITERACOES_POR_RODADA, maxIteracoes - iteracoes);
+            final long inicioRodada = relogio.getAsLong();
+            for (int i = 0; i < rodada; i++)
+                iteracao(iteracoes + i, folha, etapaAdicional);
+
+            media = (relogio.getAsLong() - inicioRodada) / rodada;
+            iteracoes += rodada;
+            final boolean estavel = mediaAnterior > 0 && Math.abs(media - mediaAnterior) <= mediaAnterior * VARIACAO_ESTAVEL;
+            rodadasEstaveis = estavel ? rodadasEstaveis + 1 : 0;
+            mediaAnterior = media;
+        }
+
+        return new Resultado(inicializacaoNanos, relogio.getAsLong() - inicio, iteracoes, media, rodadasEstaveis >= RODADAS_ESTAVEIS);
+    }
+
+    /**
+     * Inicializa os componentes carregados apenas na primeira geração de uma imagem:
+     * os plugins do ImageIO, o AWT e as classes do zxing.
+     */
+    private void inicializar() {
+        ImageIO.scanForPlugins();
+        formatos.forEach(formato -> ImageIO.getImageWritersByFormatName(formato).next());
+        sumidouro += new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).getRGB(0, 0);
+        try {
+            sumidouro += Encoder.encode("aquecimento", ErrorCorrectionLevel.L).getVersion().getVersionNumber();
+        } catch (WriterException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gera um QRCode sintético por todos os caminhos de geração.
+     * Os dados variam a cada iteração, assim nenhum resultado pode ser reaproveitado.
+     */
+    private void iteracao(final int i, final FolhaQRCodes folha, final Consumer<QRCodePix> etapaAdicional) {
+        final var dados = new DadosEnvioPix(
+                "Aquecimento", "chave%d@email.com".formatted(i), BigDecimal.valueOf(i + 1L, 2), "Palmas", "Pedido " + i);
+        final var qrCodePix = new QRCodePix(dados, "TX" + i);
+        sumidouro += LeitorCodigoPix.ler(qrCodePix.generate()).idTransacao().length();
+        for (final String formato : formatos)
+            sumidouro += qrCodePix.getBytes(formato).length;
+
+        sumidouro += qrCodePix.getSvg().length();
+        sumidouro += ImagemBase64.dataUri(qrCodePix, "png").length();
+        folha.compor(List.of(qrCodePix).iterator(), (numero, pagina) -> sumidouro += pagina.getRGB(0, 0));
+        renderizar(qrCodePix, etapaAdicional);
+
+        final var dinamico = new QRCodePix(new DadosPixDinamico("Aquecimento", "pix.example.com/qr/v2/" + i, "Palmas"));
+        sumidouro += LeitorCodigoPix.lerDinamico(dinamico.generate()).urlLocalizacao().length();
+        renderizar(dinamico, etapaAdicional);
+    }
+
+    private void renderizar(final QRCodePix qrCodePix, final Consumer<QRCodePix> etapaAdicional) {
+        try(final var imagem = pool.renderizarPng(qrCodePix)) {
+            sumidouro += imagem.tamanho();
+        }
+
+        etapaAdicional.accept(qrCodePix);
+    }
+
+    @Override
+    public String toString() {
+        return "AquecimentoPix[maxIteracoes=%d, tempoMaximo=%s, formatos=%s, sumidouro=%d]"
+                .formatted(maxIteracoes, tempoMaximo, formatos, sumidouro);
+    }
+}
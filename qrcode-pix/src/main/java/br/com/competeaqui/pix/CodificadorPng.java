@@ -0,0 +1,218 @@
+package br.com.competeaqui.pix;
+
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Codifica a imagem de um QRCode diretamente no formato PNG (preto e branco, 1 bit por pixel),
+ * reutilizando o {@link Deflater}, a linha de pixels e o buffer de saída entre imagens.
+ * Os pixels são gerados linha a linha a partir da matriz de módulos,
+ * sem alocar uma matriz ou {@link java.awt.image.BufferedImage} do tamanho da imagem.
+ *
+ * <p>O desenho segue as mesmas regras do {@link com.google.zxing.qrcode.QRCodeWriter}
+ * (margem de 4 módulos, ampliação inteira e centralização), produzindo os mesmos pixels
+ * de {@link QRCodePix#write(java.io.OutputStream, String)}.</p>
+ *
+ * <p>Não é thread-safe: cada instância deve ser usada por uma thread por vez,
+ * como garantido pelo {@link PoolRenderizacao}.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+final class CodificadorPng {
+    private static final byte[] ASSINATURA = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /**
+     * Margem do QRCode em módulos, a mesma usada pelo zxing.
+     */
+    private static final int MARGEM = 4;
+
+    /**
+     * Capacidade inicial do buffer de saída, suficiente para um QRCode PIX típico.
+     */
+    static final int CAPACIDADE_INICIAL = 4 * 1024;
+
+    /**
+     * Capacidade máxima mantida pelo buffer de saída ao ser {@link #limpar() limpo},
+     * evitando que uma imagem muito grande mantenha memória ocupada no pool.
+     */
+    static final int CAPACIDADE_RETIDA = 256 * 1024;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Linha de pixels no formato do PNG: o tipo de filtro seguido de 1 bit por pixel (1 = branco).
+     */
+    private byte[] linha = new byte[0];
+
+    private byte[] saida = new byte[CAPACIDADE_INICIAL];
+    private int tamanho;
+
+    /**
+     * Codifica uma imagem PNG, substituindo a imagem codificada anteriormente.
+     * @param modulos matriz de módulos do QRCode, como retornada por {@link QRCodePix#modulos()}
+     * @param tamanhoImagem largura e altura mínimas da imagem em pixels
+     * @return a quantidade de bytes da imagem, disponíveis em {@link #saida()}
+     */
+    int codificar(final ByteMatrix modulos, final int tamanhoImagem) {
+        final int qtdModulos = modulos.getWidth();
+        final int largura = Math.max(tamanhoImagem, qtdModulos + MARGEM * 2);
+        final int escala = largura / (qtdModulos + MARGEM * 2);
+        final int inicio = (largura - qtdModulos * escala) / 2;
+        final int bytesLinha = 1 + (largura + 7) / 8;
+        if(linha.length != bytesLinha)
+            linha = new byte[bytesLinha];
+
+        tamanho = 0;
+        escrever(ASSINATURA, ASSINATURA.length);
+
+        final int inicioIhdr = abrirChunk("IHDR");
+        escreverInt(largura);
+        escreverInt(largura);
+        escreverByte(1); // bits por pixel
+        escreverByte(0); // tons de cinza
+        escreverByte(0); // compressão deflate
+        escreverByte(0); // filtros adaptativos
+        escreverByte(0); // sem entrelaçamento
+        fecharChunk(inicioIhdr);
+
+        final int inicioIdat = abrirChunk("IDAT");
+        linhaBranca();
+        comprimir(inicio);
+        for (int y = 0; y < qtdModulos; y++) {
+            linhaBranca();
+            for (int x = 0; x < qtdModulos; x++) {
+                if(modulos.get(x, y) == 1)
+                    pintarPreto(inicio + x * escala, escala);
+            }
+
+            comprimir(escala);
+        }
+
+        linhaBranca();
+        comprimir(largura - inicio - qtdModulos * escala);
+        finalizarCompressao();
+        fecharChunk(inicioIdat);
+
+        fecharChunk(abrirChunk("IEND"));
+        return tamanho;
+    }
+
+    /**
+     * {@return o buffer com a última imagem codificada}, válida da posição 0 até o {@link #tamanho()}
+     */
+    byte[] saida() {
+        return saida;
+    }
+
+    /**
+     * {@return a quantidade de bytes da última imagem codificada}
+     */
+    int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Prepara o codificador para ser devolvido ao pool,
+     * liberando o buffer de saída se ele cresceu além de {@link #CAPACIDADE_RETIDA}.
+     */
+    void limpar() {
+        tamanho = 0;
+        deflater.reset();
+        if(saida.length > CAPACIDADE_RETIDA)
+            saida = new byte[CAPACIDADE_INICIAL];
+    }
+
+    /**
+     * Libera a memória nativa usada pelo {@link Deflater}, quando o codificador é descartado pelo pool.
+     */
+    void finalizar() {
+        deflater.end();
+    }
+
+    private void linhaBranca() {
+        Arrays.fill(linha, (byte) 0xFF);
+        linha[0] = 0; // filtro "None"
+    }
+
+    private void pintarPreto(final int inicio, final int quantidade) {
+        for (int x = inicio; x < inicio + quantidade; x++)
+            linha[1 + (x >> 3)] &= (byte) ~(0x80 >>> (x & 7));
+    }
+
+    /**
+     * Comprime a linha atual repetidas vezes, uma para cada linha da imagem que ela representa.
+     */
+    private void comprimir(final int repeticoes) {
+        for (int i = 0; i < repeticoes; i++) {
+            deflater.setInput(linha);
+            while (!deflater.needsInput())
+                esvaziarDeflater();
+        }
+    }
+
+    private void finalizarCompressao() {
+        deflater.finish();
+        while (!deflater.finished())
+            esvaziarDeflater();
+
+        deflater.reset();
+    }
+
+    private void esvaziarDeflater() {
+        garantirCapacidade(linha.length + 64);
+        tamanho += deflater.deflate(saida, tamanho, saida.length - tamanho);
+    }
+
+    /**
+     * Inicia um chunk do PNG, cujo tamanho é preenchido por {@link #fecharChunk(int)}.
+     * @return a posição onde o tipo do chunk começa
+     */
+    private int abrirChunk(final String tipo) {
+        escreverInt(0);
+        final int inicio = tamanho;
+        escrever(tipo.getBytes(StandardCharsets.US_ASCII), 4);
+        return inicio;
+    }
+
+    private void fecharChunk(final int inicioTipo) {
+        final int tamanhoDados = tamanho - inicioTipo - 4;
+        gravarInt(inicioTipo - 4, tamanhoDados);
+        crc.reset();
+        crc.update(saida, inicioTipo, tamanhoDados + 4);
+        escreverInt((int) crc.getValue());
+    }
+
+    private void escrever(final byte[] bytes, final int quantidade) {
+        garantirCapacidade(quantidade);
+        System.arraycopy(bytes, 0, saida, tamanho, quantidade);
+        tamanho += quantidade;
+    }
+
+    private void escreverByte(final int valor) {
+        garantirCapacidade(1);
+        saida[tamanho++] = (byte) valor;
+    }
+
+    private void escreverInt(final int valor) {
+        garantirCapacidade(4);
+        gravarInt(tamanho, valor);
+        tamanho += 4;
+    }
+
+    private void gravarInt(final int posicao, final int valor) {
+        saida[posicao] = (byte) (valor >>> 24);
+        saida[posicao + 1] = (byte) (valor >>> 16);
+        saida[posicao + 2] = (byte) (valor >>> 8);
+        saida[posicao + 3] = (byte) valor;
+    }
+
+    private void garantirCapacidade(final int adicional) {
+        if(tamanho + adicional > saida.length)
+            saida = Arrays.copyOf(saida, Math.max(saida.length * 2, tamanho + adicional));
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.competeaqui.pix;
+
+import java.util.Locale;
+
+/**
+ * Estatísticas de execução de um lote de QRCodes processado por {@link GeradorLote} ou {@link VerificadorLote}:
+ * vazão, percentis de latência e quantidade de erros.
+ *
+ * <p>As latências são contadas em um histograma de tamanho fixo, assim a memória usada
+ * não depende da quantidade de registros do lote.
+ * Valores menores que 128 ns são contados exatamente; os demais são agrupados em faixas
+ * de potências de 2, cada uma dividida em 128 sub-faixas de mesmo tamanho.
+ * Desta forma, os percentis têm erro relativo menor que 1%. O mínimo, o máximo e a média são exatos.</p>
+ *
+ * Não é thread-safe: deve ser atualizada por uma única thread.
+ * @author Manoel Campos da Silva Filho
+ */
+final class EstatisticasLote {
+    private static final double NANOS_POR_MILI = 1_000_000.0;
+
+    /**
+     * Quantidade de bits usados para indicar a sub-faixa dentro de uma faixa de potência de 2.
+     */
+    private static final int BITS_SUB_FAIXA = 7;
+
+    /**
+     * Quantidade de sub-faixas em cada faixa de potência de 2.
+     */
+    private static final int SUB_FAIXAS = 1 << BITS_SUB_FAIXA;
+
+    private final long inicioNanos = System.nanoTime();
+    private long fimNanos;
+
+    /**
+     * Quantidade de registros processados com sucesso em cada faixa de latência.
+     * Cobre todas as latências não negativas representáveis em um long.
+     */
+    private final int[] contagens = new int[(Long.SIZE - BITS_SUB_FAIXA) * SUB_FAIXAS];
+    private long minimoNanos = Long.MAX_VALUE;
+    private long maximoNanos;
+    private long somaNanos;
+    private int sucessos;
+    private int erros;
+
+    void registrarSucesso(final long latenciaNanos) {
+        final long latencia = Math.max(0, latenciaNanos);
+        contagens[indice(latencia)]++;
+        minimoNanos = Math.min(minimoNanos, latencia);
+        maximoNanos = Math.max(maximoNanos, latencia);
+        somaNanos += latencia;
+        sucessos++;
+    }
+
+    void registrarErro() {
+        erros++;
+    }
+
+    /**
+     * Indica que o processamento do lote terminou.
+     */
+    void finalizar() {
+        fimNanos = System.nanoTime();
+    }
+
+    int sucessos() {
+        return sucessos;
+    }
+
+    int erros() {
+        return erros;
+    }
+
+    /**
+     * {@return a quantidade de registros processados por segundo (incluindo os que falharam)}
+     */
+    double vazao() {
+        final double segundos = (fimNanos - inicioNanos) / 1_000_000_000.0;
+        return segundos == 0 ? 0 : (sucessos + erros) / segundos;
+    }
+
+    /**
+     * {@return a latência média (em milissegundos) dos registros processados com sucesso}
+     */
+    double mediaMs() {
+        return sucessos == 0 ? 0 : somaNanos / NANOS_POR_MILI / sucessos;
+    }
+
+    /**
+     * Obtém um percentil da latência dos registros processados com sucesso.
+     * O valor retornado é o maior da faixa do histograma onde o percentil está,
+     * limitado às latências mínima e máxima registradas.
+     * Os percentis 0 e 100 são exatamente as latências mínima e máxima.
+     * @param percentil percentil desejado, entre 0 e 100
+     * @return a latência em milissegundos
+     */
+    double percentilMs(final double percentil) {
+        if(sucessos == 0)
+            return 0;
+
+        if(percentil <= 0)
+            return minimoNanos / NANOS_POR_MILI;
+
+        final long posicao = Math.max(1, (long) Math.ceil(percentil / 100.0 * sucessos));
+        long acumulado = 0;
+        int indice = 0;
+        while (indice < contagens.length - 1 && (acumulado += contagens[indice]) < posicao)
+            indice++;
+
+        final long latencia = Math.max(minimoNanos, Math.min(maiorValor(indice), maximoNanos));
+        return latencia / NANOS_POR_MILI;
+    }
+
+    /**
+     * {@return o índice da faixa do histograma onde uma latência é contada}
+     * @param latenciaNanos latência não negativa
+     */
+    private static int indice(final long latenciaNanos) {
+        if(latenciaNanos < SUB_FAIXAS)
+            return (int) latenciaNanos;
+
+        final int deslocamento = Long.SIZE - 1 - Long.numberOfLeadingZeros(latenciaNanos) - BITS_SUB_FAIXA;
+        final int subFaixa = (int) (latenciaNanos >>> deslocamento) - SUB_FAIXAS;
+        return (deslocamento + 1) * SUB_FAIXAS + subFaixa;
+    }
+
+    /**
+     * {@return a maior latência contada em uma faixa do histograma}
+     * @param indice índice da faixa
+     */
+    private static long maiorValor(final int indice) {
+        if(indice < SUB_FAIXAS)
+            return indice;
+
+        final int deslocamento = indice / SUB_FAIXAS - 1;
+        final long menor = (long) (indice % SUB_FAIXAS + SUB_FAIXAS) << deslocamento;
+        return menor + (1L << deslocamento) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                Locale.ROOT,
+                "Registros: %d | Erros: %d | Tempo: %.2f s | Vazão: %.1f registros/s | Latência média: %.3f ms p50: %.3f ms p95: %.3f ms p99: %.3f ms máx: %.3f ms",
+                sucessos + erros, erros, (fimNanos - inicioNanos) / 1_000_000_000.0, vazao(),
+                mediaMs(), percentilMs(50), percentilMs(95), percentilMs(99), percentilMs(100));
+    }
+}
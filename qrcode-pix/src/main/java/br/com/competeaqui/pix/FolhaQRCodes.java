@@ -0,0 +1,288 @@
+package br.com.competeaqui.pix;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compõe vários QRCodes PIX em folhas para impressão (como carnês e etiquetas),
+ * distribuídos em uma grade definida por um {@link LayoutFolha}.
+ *
+ * <p>Os módulos de cada QRCode são desenhados diretamente no buffer da página,
+ * com as células da grade processadas em paralelo.
+ * Os códigos e seus módulos são gerados antes, na thread que compõe a página,
+ * pois {@link QRCodePix} não é thread-safe.
+ * As páginas são geradas uma de cada vez e entregues a quem as consome,
+ * assim um lote com milhares de QRCodes nunca mantém todas as páginas em memória.</p>
+ *
+ * @see #compor(Iterator, ConsumidorPagina)
+ * @see #salvar(Iterable, Path, String)
+ * @author Manoel Campos da Silva Filho
+ */
+public final class FolhaQRCodes {
+    /**
+     * Formato para exportar as páginas como imagem PNG.
+     */
+    public static final String FORMATO_PNG = "png";
+
+    /**
+     * Formato para exportar as páginas como documento PDF.
+     */
+    public static final String FORMATO_PDF = "pdf";
+
+    /**
+     * Proporção da altura da célula reservada para a legenda, quando existir.
+     */
+    private static final double PROPORCAO_LEGENDA = 0.12;
+
+    /**
+     * Quantidade de módulos da zona de silêncio (borda branca) em cada lado do QRCode,
+     * a mesma usada pelo zxing.
+     */
+    private static final int ZONA_SILENCIO = 4;
+
+    /**
+     * Quantidade de módulos de um QRCode da menor versão (1), sem a zona de silêncio.
+     */
+    private static final int MODULOS_VERSAO_1 = 21;
+
+    private static final byte BRANCO = (byte) 0xFF;
+    private static final byte PRETO = 0;
+
+    private final LayoutFolha layout;
+
+    /**
+     * Função que define o texto abaixo de cada QRCode (como valor e id da transação),
+     * ou null se não houver legenda.
+     */
+    private final Function<QRCodePix, String> legenda;
+
+    /**
+     * Recebe cada página gerada por {@link #compor(Iterator, ConsumidorPagina)}.
+     */
+    @FunctionalInterface
+    public interface ConsumidorPagina {
+        /**
+         * Processa uma página gerada.
+         * @param numero número da página (iniciando em 1)
+         * @param pagina imagem da página, que não deve ser mantida após o retorno do método
+         * @throws IOException se ocorrer erro ao gravar a página
+         */
+        void aceitar(int numero, BufferedImage pagina) throws IOException;
+    }
+
+    /**
+     * Cria um compositor de folhas sem legendas.
+     * @param layout layout das páginas
+     */
+    public FolhaQRCodes(final LayoutFolha layout) {
+        this(layout, null);
+    }
+
+    /**
+     * Cria um compositor de folhas com legendas.
+     * @param layout layout das páginas
+     * @param legenda função que define o texto abaixo de cada QRCode (como valor e id da transação),
+     *                ou null se não houver legenda
+     * @throws IllegalArgumentException se as células do layout forem pequenas demais para conter um QRCode
+     */
+    public FolhaQRCodes(final LayoutFolha layout, final Function<QRCodePix, String> legenda) {
+        this.layout = requireNonNull(layout);
+        this.legenda = legenda;
+        if(ladoQRCode() < MODULOS_VERSAO_1 + 2 * ZONA_SILENCIO)
+            throw new IllegalArgumentException("As células do layout são pequenas demais para conter um QRCode.");
+    }
+
+    /**
+     * Compõe os QRCodes em páginas, entregando cada página ao consumidor assim que ela é gerada.
+     * @param codigos QRCodes a serem incluídos nas páginas
+     * @param consumidor recebe cada página gerada
+     * @return a quantidade de páginas geradas
+     * @throws UncheckedIOException se o consumidor não conseguir processar uma página
+     * @throws IllegalArgumentException se algum QRCode (incluindo sua zona de silêncio) não couber em uma célula
+     */
+    public int compor(final Iterator<QRCodePix> codigos, final ConsumidorPagina consumidor) {
+        final var lote = new ArrayList<QRCodePix>(layout.codigosPorPagina());
+        final var pagina = new BufferedImage(layout.larguraPx(), layout.alturaPx(), BufferedImage.TYPE_BYTE_GRAY);
+        int numero = 0;
+        while (codigos.hasNext()) {
+            lote.clear();
+            while (codigos.hasNext() && lote.size() < layout.codigosPorPagina())
+                lote.add(codigos.next());
+
+            desenhar(lote, pagina);
+            try {
+                consumidor.aceitar(++numero, pagina);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return numero;
+    }
+
+    /**
+     * Compõe os QRCodes em páginas e salva cada uma em um arquivo separado
+     * (pagina-0001.png, pagina-0002.png, etc).
+     * @param codigos QRCodes a serem incluídos nas páginas
+     * @param pasta pasta onde os arquivos serão gravados
+     * @param formato formato dos arquivos: {@link #FORMATO_PNG} ou {@link #FORMATO_PDF}
+     * @return a quantidade de páginas geradas
+     * @throws UncheckedIOException se não for possível gravar algum arquivo
+     */
+    public int salvar(final Iterable<QRCodePix> codigos, final Path pasta, final String formato) {
+        validarFormato(formato);
+        try {
+            Files.createDirectories(pasta);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return compor(codigos.iterator(), (numero, pagina) -> {
+            final Path arquivo = pasta.resolve("pagina-%04d.%s".formatted(numero, formato));
+            try(final var out = new BufferedOutputStream(Files.newOutputStream(arquivo))) {
+                escrever(pagina, formato, out);
+            }
+        });
+    }
+
+    /**
+     * Escreve uma página gerada por {@link #compor(Iterator, ConsumidorPagina)} em um determinado formato.
+     * @param pagina página a ser escrita
+     * @param formato formato da página: {@link #FORMATO_PNG} ou {@link #FORMATO_PDF}
+     * @param out onde a página será escrita
+     * @throws IOException se ocorrer erro durante a escrita
+     */
+    public void escrever(final BufferedImage pagina, final String formato, final OutputStream out) throws IOException {
+        validarFormato(formato);
+        if(FORMATO_PDF.equals(formato))
+            PdfPagina.escrever(pagina, layout.dpi(), out);
+        else ImageIO.write(pagina, formato, out);
+    }
+
+    private static void validarFormato(final String formato) {
+        if(!FORMATO_PNG.equals(formato) && !FORMATO_PDF.equals(formato))
+            throw new IllegalArgumentException("Formato '%s' inválido. Use '%s' ou '%s'.".formatted(formato, FORMATO_PNG, FORMATO_PDF));
+    }
+
+    /**
+     * Desenha um lote de QRCodes em uma página, reaproveitando o buffer da página anterior.
+     */
+    private void desenhar(final List<QRCodePix> lote, final BufferedImage pagina) {
+        final byte[] pixels = ((DataBufferByte) pagina.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, BRANCO);
+
+        final var modulos = new ArrayList<ByteMatrix>(lote.size());
+        for (final QRCodePix qrCode : lote)
+            modulos.add(modulos(qrCode));
+
+        // Cada célula escreve em uma região distinta do buffer, por isso podem ser desenhadas em paralelo.
+        IntStream.range(0, modulos.size()).parallel().forEach(i -> desenharCelula(modulos.get(i), i, pixels));
+
+        if(legenda != null)
+            desenharLegendas(lote, pagina);
+    }
+
+    /**
+     * {@return os módulos de um QRCode, gerando o código caso ainda não tenha sido gerado}
+     */
+    private static ByteMatrix modulos(final QRCodePix qrCode) {
+        try {
+            return qrCode.modulos();
+        } catch (WriterException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Desenha os módulos de um QRCode na sua célula, usando a maior escala inteira (pixels por módulo)
+     * em que o código e sua zona de silêncio cabem na célula.
+     * Não acessa o {@link QRCodePix}, apenas os módulos já gerados, por isso pode ser executado em paralelo.
+     */
+    private void desenharCelula(final ByteMatrix modulos, final int indice, final byte[] pixels) {
+        final int lado = ladoQRCode();
+        final int quantidade = modulos.getWidth();
+        final int escala = lado / (quantidade + 2 * ZONA_SILENCIO);
+        if(escala == 0) {
+            final var msg = "As células do layout (%d px) são pequenas demais para um QRCode de %d módulos, que precisa de %d px incluindo a zona de silêncio."
+                    .formatted(lado, quantidade, quantidade + 2 * ZONA_SILENCIO);
+            throw new IllegalArgumentException(msg);
+        }
+
+        // Centraliza o QRCode na área reservada a ele, como faz o zxing
+        final int margem = (lado - quantidade * escala) / 2;
+        final int x0 = xCelula(indice) + (layout.larguraCelulaPx() - lado) / 2 + margem;
+        final int y0 = yCelula(indice) + margem;
+        final int larguraPagina = layout.larguraPx();
+        for (int my = 0; my < quantidade; my++) {
+            for (int mx = 0; mx < quantidade; mx++) {
+                if(modulos.get(mx, my) != 1)
+                    continue;
+
+                for (int y = 0; y < escala; y++) {
+                    final int inicio = (y0 + my * escala + y) * larguraPagina + x0 + mx * escala;
+                    Arrays.fill(pixels, inicio, inicio + escala, PRETO);
+                }
+            }
+        }
+    }
+
+    private void desenharLegendas(final List<QRCodePix> lote, final BufferedImage pagina) {
+        final int alturaLegenda = alturaLegenda();
+        final Graphics2D g = pagina.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.BLACK);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, Math.max(1, alturaLegenda * 2 / 3)));
+            final var metrics = g.getFontMetrics();
+            for (int i = 0; i < lote.size(); i++) {
+                final String texto = legenda.apply(lote.get(i));
+                if(texto == null || texto.isBlank())
+                    continue;
+
+                final int x = xCelula(i) + Math.max(0, (layout.larguraCelulaPx() - metrics.stringWidth(texto)) / 2);
+                final int y = yCelula(i) + ladoQRCode() + metrics.getAscent();
+                g.drawString(texto, x, y);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * {@return o tamanho (largura e altura) em pixels de cada QRCode na página}
+     */
+    private int ladoQRCode() {
+        return Math.min(layout.larguraCelulaPx(), layout.alturaCelulaPx() - alturaLegenda());
+    }
+
+    private int alturaLegenda() {
+        return legenda == null ? 0 : (int) (layout.alturaCelulaPx() * PROPORCAO_LEGENDA);
+    }
+
+    private int xCelula(final int indice) {
+        return layout.margemPx() + (indice % layout.colunas()) * layout.larguraCelulaPx();
+    }
+
+    private int yCelula(final int indice) {
+        return layout.margemPx() + (indice / layout.colunas()) * layout.alturaCelulaPx();
+    }
+}
@@ -0,0 +1,312 @@
+package br.com.competeaqui.pix;
+
+import javax.imageio.ImageIO;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Gera QRCodes PIX em lote a partir de registros de texto, usando um conjunto de threads.
+ *
+ * <p>Cada linha da entrada representa um PIX com os campos separados por ponto e vírgula, no formato:
+ * {@code nome;chave;valor;cidade[;descricao[;idTransacao]]}.
+ * Linhas em branco ou iniciadas com # são ignoradas.</p>
+ *
+ * <p>Os registros são processados em paralelo, mas os resultados são gravados no
+ * {@link Destino} na mesma ordem da entrada. A quantidade de registros em processamento
+ * é limitada, assim entradas muito grandes não são carregadas inteiras em memória.</p>
+ *
+ * @see AppPixQRCodeGenerator
+ * @author Manoel Campos da Silva Filho
+ */
+final class GeradorLote {
+    /**
+     * Separador dos campos de cada registro.
+     */
+    static final String SEPARADOR = ";";
+
+    /**
+     * Quantidade de registros em processamento por thread, antes que a leitura da entrada aguarde.
+     */
+    private static final int REGISTROS_POR_THREAD = 4;
+
+    /**
+     * Caracteres não permitidos em nomes de arquivos gerados a partir do id da transação.
+     */
+    private static final String CARACTERES_INVALIDOS_NOME = "[^A-Za-z0-9_-]";
+
+    /**
+     * O que deve ser gerado para cada registro.
+     */
+    enum Modo {
+        /** Apenas o código PIX "Copia e Cola". */
+        CODIGO,
+        /** Apenas a imagem do QRCode. */
+        IMAGEM,
+        /** O código PIX e a imagem do QRCode. */
+        AMBOS;
+
+        boolean geraImagem() {
+            return this != CODIGO;
+        }
+    }
+
+    /**
+     * Resultado do processamento de um registro.
+     * @param linha número da linha do registro na entrada
+     * @param nome nome base para arquivos gerados a partir do registro (sem extensão)
+     * @param codigo código PIX "Copia e Cola" gerado
+     * @param imagem bytes da imagem do QRCode, ou null se o {@link Modo} não gera imagem
+     * @param latenciaNanos tempo gasto para processar o registro
+     */
+    record Resultado(long linha, String nome, String codigo, byte[] imagem, long latenciaNanos) {}
+
+    /**
+     * Onde os resultados do lote são gravados.
+     */
+    interface Destino extends Closeable {
+        /**
+         * Grava o resultado de um registro.
+         * @throws IllegalArgumentException se o resultado não puder ser gravado por um problema no registro
+         *                                  (como um id de transação repetido), o que não interrompe o lote
+         * @throws IOException se ocorrer erro de escrita
+         */
+        void gravar(Resultado resultado) throws IOException;
+    }
+
+    private final int threads;
+    private final Modo modo;
+    private final String formato;
+
+    /**
+     * Cria um gerador de lotes.
+     * @param threads quantidade de threads para processar os registros
+     * @param modo o que deve ser gerado para cada registro
+     * @param formato formato das imagens (como png ou jpg)
+     * @throws IllegalArgumentException se a quantidade de threads for inválida ou o formato não for suportado pelo {@link ImageIO}
+     */
+    GeradorLote(final int threads, final Modo modo, final String formato) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("A quantidade de threads deve ser maior que zero.");
+        if(!ImageIO.getImageWritersByFormatName(formato).hasNext())
+            throw new IllegalArgumentException("Formato de imagem não suportado: %s".formatted(formato));
+
+        this.threads = threads;
+        this.modo = requireNonNull(modo);
+        this.formato = requireNonNull(formato);
+    }
+
+    /**
+     * Processa todos os registros da entrada, gravando os resultados no destino.
+     * Registros inválidos são reportados em {@code erros} e não interrompem o processamento.
+     * @param entrada de onde os registros são lidos
+     * @param destino onde os resultados são gravados
+     * @param erros onde as mensagens de erro são escritas
+     * @return as estatísticas da execução
+     * @throws IOException se ocorrer erro ao ler a entrada ou gravar no destino
+     */
+    EstatisticasLote processar(final BufferedReader entrada, final Destino destino, final PrintStream erros) throws IOException {
+        final var estatisticas = new EstatisticasLote();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final var pendentes = new ArrayDeque<Future<Resultado>>();
+        final int maxPendentes = threads * REGISTROS_POR_THREAD;
+        try {
+            long numeroLinha = 0;
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                numeroLinha++;
+                if(linha.isBlank() || linha.startsWith("#"))
+                    continue;
+
+                final long numero = numeroLinha;
+                final String registro = linha;
+                pendentes.add(executor.submit(() -> gerar(numero, registro)));
+                if(pendentes.size() >= maxPendentes)
+                    gravarProximo(pendentes, destino, estatisticas, erros);
+            }
+
+            while (!pendentes.isEmpty())
+                gravarProximo(pendentes, destino, estatisticas, erros);
+        } finally {
+            executor.shutdownNow();
+            estatisticas.finalizar();
+        }
+
+        return estatisticas;
+    }
+
+    private void gravarProximo(
+        final ArrayDeque<Future<Resultado>> pendentes, final Destino destino,
+        final EstatisticasLote estatisticas, final PrintStream erros) throws IOException
+    {
+        try {
+            final Resultado resultado = pendentes.remove().get();
+            destino.gravar(resultado);
+            estatisticas.registrarSucesso(resultado.latenciaNanos());
+        } catch (ExecutionException e) {
+            estatisticas.registrarErro();
+            erros.println(e.getCause().getMessage());
+        } catch (IllegalArgumentException e) {
+            estatisticas.registrarErro();
+            erros.println(e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Processamento do lote interrompido");
+        }
+    }
+
+    /**
+     * Gera o código PIX (e possivelmente a imagem) para um registro.
+     * @throws IllegalArgumentException se o registro for inválido
+     */
+    private Resultado gerar(final long numeroLinha, final String registro) {
+        final long inicio = System.nanoTime();
+        try {
+            final var campos = registro.split(SEPARADOR, -1);
+            final var qrCodePix = parse(campos);
+            final var codigo = qrCodePix.generate();
+            final byte[] imagem = modo.geraImagem() ? qrCodePix.getBytes(formato) : null;
+            final var nome = campos.length > 5 && !campos[5].isBlank() ? nomeArquivo(campos[5].trim()) : "%06d".formatted(numeroLinha);
+            return new Resultado(numeroLinha, nome, codigo, imagem, System.nanoTime() - inicio);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Linha %d: %s".formatted(numeroLinha, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Converte um id de transação em um nome de arquivo seguro, substituindo por _ os caracteres
+     * que poderiam indicar outra pasta (como / e ..) ou não são aceitos em alguns sistemas de arquivos.
+     * @param idTransacao id da transação informado no registro
+     * @return o nome do arquivo (sem extensão)
+     */
+    static String nomeArquivo(final String idTransacao) {
+        return idTransacao.replaceAll(CARACTERES_INVALIDOS_NOME, "_");
+    }
+
+    /**
+     * Registra o nome dos arquivos de um resultado, garantindo que ele não sobrescreva os de um registro anterior.
+     * @param nomes nomes já usados, em minúsculas (pois alguns sistemas de arquivos não diferenciam maiúsculas)
+     * @throws IllegalArgumentException se o nome já foi usado
+     */
+    private static void registrarNome(final Set<String> nomes, final Resultado resultado) {
+        if(!nomes.add(resultado.nome().toLowerCase(Locale.ROOT))) {
+            final var msg = "Linha %d: o arquivo '%s' já foi gerado por outro registro. Verifique se o id da transação está repetido."
+                    .formatted(resultado.linha(), resultado.nome());
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    /**
+     * Cria um {@link QRCodePix} a partir dos campos de um registro.
+     * @param campos campos no formato {@code nome;chave;valor;cidade[;descricao[;idTransacao]]}
+     * @return o objeto criado
+     * @throws IllegalArgumentException se a quantidade de campos ou algum valor for inválido
+     */
+    static QRCodePix parse(final String[] campos) {
+        if(campos.length < 4 || campos.length > 6) {
+            final var msg = "O registro deve ter de 4 a 6 campos (nome;chave;valor;cidade[;descricao[;idTransacao]]), mas tem %d."
+                    .formatted(campos.length);
+            throw new IllegalArgumentException(msg);
+        }
+
+        final BigDecimal valor;
+        try {
+            valor = new BigDecimal(campos[2].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor '%s' inválido.".formatted(campos[2]), e);
+        }
+
+        final var descricao = campos.length > 4 ? campos[4] : "";
+        final var dados = new DadosEnvioPix(campos[0], campos[1], valor, campos[3], descricao);
+        return campos.length > 5 && !campos[5].isBlank() ? new QRCodePix(dados, campos[5].trim()) : new QRCodePix(dados);
+    }
+
+    /**
+     * Cria um destino que escreve o código PIX de cada registro, um por linha.
+     * @param out onde os códigos são escritos
+     */
+    static Destino destinoTexto(final OutputStream out) {
+        final var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        return new Destino() {
+            @Override
+            public void gravar(final Resultado resultado) throws IOException {
+                writer.write(resultado.codigo());
+                writer.newLine();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    /**
+     * Cria um destino que grava arquivos em uma pasta: a imagem do QRCode e/ou
+     * um arquivo .txt com o código PIX, conforme o {@link Modo}.
+     * Registros que gerariam os mesmos arquivos de um registro anterior são reportados como erro.
+     * @param pasta pasta onde os arquivos serão gravados (criada se não existir)
+     */
+    Destino destinoPasta(final Path pasta) throws IOException {
+        Files.createDirectories(pasta);
+        final var nomes = new HashSet<String>();
+        return new Destino() {
+            @Override
+            public void gravar(final Resultado resultado) throws IOException {
+                registrarNome(nomes, resultado);
+                if(resultado.imagem() != null)
+                    Files.write(pasta.resolve(resultado.nome() + "." + formato), resultado.imagem());
+                if(modo != Modo.IMAGEM)
+                    Files.writeString(pasta.resolve(resultado.nome() + ".txt"), resultado.codigo());
+            }
+
+            @Override
+            public void close() {/**/}
+        };
+    }
+
+    /**
+     * Cria um destino que grava os arquivos de cada registro dentro de um arquivo ZIP.
+     * @param out onde o ZIP é escrito (fechado junto com o destino)
+     * @see #destinoPasta(Path)
+     */
+    Destino destinoZip(final OutputStream out) {
+        final var zip = new ZipOutputStream(new BufferedOutputStream(out));
+        final var nomes = new HashSet<String>();
+        return new Destino() {
+            @Override
+            public void gravar(final Resultado resultado) throws IOException {
+                registrarNome(nomes, resultado);
+                if(resultado.imagem() != null)
+                    entrada(resultado.nome() + "." + formato, resultado.imagem());
+                if(modo != Modo.IMAGEM)
+                    entrada(resultado.nome() + ".txt", resultado.codigo().getBytes(StandardCharsets.UTF_8));
+            }
+
+            private void entrada(final String nome, final byte[] bytes) throws IOException {
+                zip.putNextEntry(new ZipEntry(nome));
+                zip.write(bytes);
+                zip.closeEntry();
+            }
+
+            @Override
+            public void close() throws IOException {
+                zip.close();
+            }
+        };
+    }
+}
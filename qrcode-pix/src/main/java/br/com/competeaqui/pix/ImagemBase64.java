@@ -0,0 +1,209 @@
+package br.com.competeaqui.pix;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Escreve a imagem de um {@link QRCodePix} codificada em Base64, como uma data URI
+ * ({@code data:image/png;base64,...}) para ser incluída diretamente em páginas HTML ou respostas JSON.
+ *
+ * <p>A imagem é codificada à medida que é gerada, diretamente no {@link Appendable}
+ * (como um {@link Writer} ou {@link StringBuilder}) ou {@link OutputStream} de destino,
+ * sem manter cópias intermediárias da imagem e do texto em Base64.</p>
+ *
+ * @see QRCodePix#write(OutputStream, String)
+ * @author Manoel Campos da Silva Filho
+ */
+public final class ImagemBase64 {
+    /**
+     * Quantidade de caracteres acumulados antes de serem enviados a um {@link Appendable}.
+     */
+    private static final int TAMANHO_BUFFER = 1024;
+
+    private ImagemBase64() {/**/}
+
+    /**
+     * Escreve a imagem do QRCode codificada em Base64 (sem o prefixo da data URI).
+     * @param qrCodePix QRCode cuja imagem será escrita
+     *                  (se o código não foi gerado ainda, chama automaticamente o {@link QRCodePix#generate()})
+     * @param formato formato da imagem (como png ou jpg)
+     * @param destino onde a imagem codificada será escrita (não é fechado pelo método)
+     * @throws UncheckedIOException se ocorrer erro durante a escrita
+     */
+    public static void escrever(final QRCodePix qrCodePix, final String formato, final OutputStream destino) {
+        final var base64 = Base64.getEncoder().wrap(new SemFechar(requireNonNull(destino)));
+        qrCodePix.write(base64, formato);
+        try {
+            // Fechar o codificador é necessário para escrever o último bloco e o preenchimento (=)
+            base64.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escreve a imagem do QRCode codificada em Base64 (sem o prefixo da data URI).
+     * @param qrCodePix QRCode cuja imagem será escrita
+     *                  (se o código não foi gerado ainda, chama automaticamente o {@link QRCodePix#generate()})
+     * @param formato formato da imagem (como png ou jpg)
+     * @param destino onde a imagem codificada será adicionada
+     * @throws UncheckedIOException se ocorrer erro durante a escrita
+     */
+    public static void escrever(final QRCodePix qrCodePix, final String formato, final Appendable destino) {
+        try(final var out = new AppendableOutputStream(destino)) {
+            escrever(qrCodePix, formato, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escreve a imagem do QRCode como uma data URI, no formato {@code data:image/png;base64,...}.
+     * @param qrCodePix QRCode cuja imagem será escrita
+     *                  (se o código não foi gerado ainda, chama automaticamente o {@link QRCodePix#generate()})
+     * @param formato formato da imagem (como png ou jpg)
+     * @param destino onde a data URI será adicionada
+     * @throws UncheckedIOException se ocorrer erro durante a escrita
+     */
+    public static void escreverDataUri(final QRCodePix qrCodePix, final String formato, final Appendable destino) {
+        try {
+            destino.append(prefixoDataUri(formato));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        escrever(qrCodePix, formato, destino);
+    }
+
+    /**
+     * Escreve a imagem do QRCode como uma data URI, no formato {@code data:image/png;base64,...}.
+     * @param qrCodePix QRCode cuja imagem será escrita
+     *                  (se o código não foi gerado ainda, chama automaticamente o {@link QRCodePix#generate()})
+     * @param formato formato da imagem (como png ou jpg)
+     * @param destino onde a data URI será escrita (não é fechado pelo método)
+     * @throws UncheckedIOException se ocorrer erro durante a escrita
+     */
+    public static void escreverDataUri(final QRCodePix qrCodePix, final String formato, final OutputStream destino) {
+        try {
+            destino.write(prefixoDataUri(formato).getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        escrever(qrCodePix, formato, destino);
+    }
+
+    /**
+     * Escreve a imagem do QRCode como uma data URI dentro de uma string JSON (incluindo as aspas),
+     * que pode ser usada como valor de um atributo em um documento JSON escrito pela aplicação.
+     * Como os caracteres da data URI não precisam de escape em JSON, nenhuma conversão adicional é feita.
+     * @param qrCodePix QRCode cuja imagem será escrita
+     *                  (se o código não foi gerado ainda, chama automaticamente o {@link QRCodePix#generate()})
+     * @param formato formato da imagem (como png ou jpg)
+     * @param destino onde a string JSON será adicionada
+     * @throws UncheckedIOException se ocorrer erro durante a escrita
+     */
+    public static void escreverDataUriJson(final QRCodePix qrCodePix, final String formato, final Appendable destino) {
+        try {
+            destino.append('"');
+            escreverDataUri(qrCodePix, formato, destino);
+            destino.append('"');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@return a imagem do QRCode como uma data URI}
+     * @param qrCodePix QRCode cuja imagem será retornada
+     *                  (se o código não foi gerado ainda, chama automaticamente o {@link QRCodePix#generate()})
+     * @param formato formato da imagem (como png ou jpg)
+     */
+    public static String dataUri(final QRCodePix qrCodePix, final String formato) {
+        final var sb = new StringBuilder();
+        escreverDataUri(qrCodePix, formato, sb);
+        return sb.toString();
+    }
+
+    /**
+     * {@return o início de uma data URI para uma imagem em Base64}, como {@code data:image/png;base64,}
+     * @param formato formato da imagem (como png ou jpg)
+     */
+    static String prefixoDataUri(final String formato) {
+        final var tipo = formato.toLowerCase(Locale.ROOT);
+        return "data:image/%s;base64,".formatted(tipo.equals("jpg") ? "jpeg" : tipo);
+    }
+
+    /**
+     * Repassa os bytes escritos (que devem ser caracteres ASCII, como os da codificação Base64)
+     * para um {@link Appendable}, acumulando-os em um buffer.
+     */
+    private static final class AppendableOutputStream extends OutputStream {
+        private final Appendable destino;
+        private final char[] buffer = new char[TAMANHO_BUFFER];
+        private final CharBuffer bufferSeq = CharBuffer.wrap(buffer);
+        private int tamanho;
+
+        AppendableOutputStream(final Appendable destino) {
+            this.destino = requireNonNull(destino);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if(tamanho == buffer.length)
+                flush();
+
+            buffer[tamanho++] = (char) (b & 0xFF);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int inicio, final int quantidade) throws IOException {
+            for (int i = inicio; i < inicio + quantidade; i++)
+                write(bytes[i]);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Writer e StringBuilder aceitam o vetor diretamente, sem criar uma String intermediária
+            if(destino instanceof Writer writer)
+                writer.write(buffer, 0, tamanho);
+            else if(destino instanceof StringBuilder sb)
+                sb.append(buffer, 0, tamanho);
+            else destino.append(bufferSeq, 0, tamanho);
+            tamanho = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Impede que o fechamento do codificador Base64 feche o {@link OutputStream} de quem chamou.
+     */
+    private static final class SemFechar extends FilterOutputStream {
+        SemFechar(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int inicio, final int quantidade) throws IOException {
+            out.write(bytes, inicio, quantidade);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.competeaqui.pix;
+
+/**
+ * Define como os QRCodes são distribuídos em uma folha para impressão
+ * (como em carnês e etiquetas), organizados em uma grade de linhas e colunas.
+ *
+ * @param larguraMm largura da página em milímetros
+ * @param alturaMm  altura da página em milímetros
+ * @param dpi       resolução da página em pontos por polegada
+ * @param linhas    quantidade de linhas de QRCodes em cada página
+ * @param colunas   quantidade de colunas de QRCodes em cada página
+ * @param margemMm  margem ao redor da página em milímetros
+ * @see FolhaQRCodes
+ * @author Manoel Campos da Silva Filho
+ * @throws IllegalArgumentException quando é passado um valor inválido para um campo
+ */
+public record LayoutFolha(double larguraMm, double alturaMm, int dpi, int linhas, int colunas, double margemMm) {
+    /**
+     * Largura de uma página A4 em milímetros.
+     */
+    public static final double LARGURA_A4_MM = 210;
+
+    /**
+     * Altura de uma página A4 em milímetros.
+     */
+    public static final double ALTURA_A4_MM = 297;
+
+    private static final double MM_POR_POLEGADA = 25.4;
+
+    public LayoutFolha {
+        if(larguraMm <= 0 || alturaMm <= 0)
+            throw new IllegalArgumentException("A largura e altura da página devem ser maiores que zero.");
+
+        if(dpi <= 0)
+            throw new IllegalArgumentException("O DPI deve ser maior que zero.");
+
+        if(linhas <= 0 || colunas <= 0)
+            throw new IllegalArgumentException("A quantidade de linhas e colunas deve ser maior que zero.");
+
+        if(margemMm < 0 || margemMm * 2 >= Math.min(larguraMm, alturaMm))
+            throw new IllegalArgumentException("A margem deve ser positiva e menor que metade da largura e altura da página.");
+    }
+
+    /**
+     * Cria um layout para uma página A4.
+     * @param dpi     resolução da página em pontos por polegada
+     * @param linhas  quantidade de linhas de QRCodes em cada página
+     * @param colunas quantidade de colunas de QRCodes em cada página
+     * @return o layout criado (com margem de 10mm)
+     */
+    public static LayoutFolha a4(final int dpi, final int linhas, final int colunas) {
+        return new LayoutFolha(LARGURA_A4_MM, ALTURA_A4_MM, dpi, linhas, colunas, 10);
+    }
+
+    /**
+     * {@return a largura da página em pixels}
+     */
+    public int larguraPx() {
+        return mmParaPx(larguraMm);
+    }
+
+    /**
+     * {@return a altura da página em pixels}
+     */
+    public int alturaPx() {
+        return mmParaPx(alturaMm);
+    }
+
+    /**
+     * {@return a margem da página em pixels}
+     */
+    public int margemPx() {
+        return mmParaPx(margemMm);
+    }
+
+    /**
+     * {@return a largura de cada célula da grade em pixels}
+     */
+    public int larguraCelulaPx() {
+        return (larguraPx() - 2 * margemPx()) / colunas;
+    }
+
+    /**
+     * {@return a altura de cada célula da grade em pixels}
+     */
+    public int alturaCelulaPx() {
+        return (alturaPx() - 2 * margemPx()) / linhas;
+    }
+
+    /**
+     * {@return a quantidade máxima de QRCodes em cada página}
+     */
+    public int codigosPorPagina() {
+        return linhas * colunas;
+    }
+
+    private int mmParaPx(final double mm) {
+        return (int) Math.round(mm / MM_POR_POLEGADA * dpi);
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.competeaqui.pix;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Escreve um documento PDF mínimo, com uma única página contendo uma imagem em tons de cinza
+ * ocupando toda a página. Evita a dependência de uma biblioteca de PDF apenas para
+ * exportar as folhas geradas por {@link FolhaQRCodes}.
+ * @author Manoel Campos da Silva Filho
+ */
+final class PdfPagina {
+    /**
+     * Quantidade de pontos PDF em uma polegada.
+     */
+    private static final int PONTOS_POR_POLEGADA = 72;
+
+    private final OutputStream out;
+
+    /**
+     * Posição (em bytes) do início de cada objeto do PDF, usada para gerar a tabela de referências cruzadas.
+     */
+    private final List<Integer> offsets = new ArrayList<>();
+
+    private int posicao;
+
+    private PdfPagina(final OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Escreve uma imagem como um documento PDF de uma página.
+     * @param imagem imagem do tipo {@link BufferedImage#TYPE_BYTE_GRAY}
+     * @param dpi resolução da imagem, usada para definir o tamanho da página
+     * @param out onde o PDF será escrito
+     * @throws IOException se ocorrer erro durante a escrita
+     */
+    static void escrever(final BufferedImage imagem, final int dpi, final OutputStream out) throws IOException {
+        if(imagem.getType() != BufferedImage.TYPE_BYTE_GRAY)
+            throw new IllegalArgumentException("A imagem deve estar em tons de cinza (TYPE_BYTE_GRAY).");
+
+        new PdfPagina(out).escrever(imagem, dpi);
+    }
+
+    private void escrever(final BufferedImage imagem, final int dpi) throws IOException {
+        final int largura = imagem.getWidth();
+        final int altura = imagem.getHeight();
+        final String larguraPt = pontos(largura, dpi);
+        final String alturaPt = pontos(altura, dpi);
+
+        escrever("%PDF-1.4\n");
+        objeto(1, "<< /Type /Catalog /Pages 2 0 R >>");
+        objeto(2, "<< /Type /Pages /Kids [3 0 R] /Count 1 >>");
+        objeto(3, "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 %s %s] /Resources << /XObject << /Im0 5 0 R >> >> /Contents 4 0 R >>"
+                   .formatted(larguraPt, alturaPt));
+
+        final var conteudo = "q %s 0 0 %s 0 0 cm /Im0 Do Q".formatted(larguraPt, alturaPt).getBytes(StandardCharsets.US_ASCII);
+        objetoStream(4, "<< /Length %d >>".formatted(conteudo.length), conteudo);
+
+        final byte[] pixels = ((DataBufferByte) imagem.getRaster().getDataBuffer()).getData();
+        final byte[] comprimidos = comprimir(pixels);
+        final var dicionario =
+                "<< /Type /XObject /Subtype /Image /Width %d /Height %d /ColorSpace /DeviceGray /BitsPerComponent 8 /Filter /FlateDecode /Length %d >>"
+                .formatted(largura, altura, comprimidos.length);
+        objetoStream(5, dicionario, comprimidos);
+
+        final int inicioXref = posicao;
+        final var xref = new StringBuilder("xref\n0 %d\n0000000000 65535 f \n".formatted(offsets.size() + 1));
+        offsets.forEach(offset -> xref.append("%010d 00000 n \n".formatted(offset)));
+        escrever(xref.toString());
+        escrever("trailer\n<< /Size %d /Root 1 0 R >>\nstartxref\n%d\n%%%%EOF\n".formatted(offsets.size() + 1, inicioXref));
+        out.flush();
+    }
+
+    private void objeto(final int numero, final String conteudo) throws IOException {
+        offsets.add(posicao);
+        escrever("%d 0 obj\n%s\nendobj\n".formatted(numero, conteudo));
+    }
+
+    private void objetoStream(final int numero, final String dicionario, final byte[] dados) throws IOException {
+        offsets.add(posicao);
+        escrever("%d 0 obj\n%s\nstream\n".formatted(numero, dicionario));
+        out.write(dados);
+        posicao += dados.length;
+        escrever("\nendstream\nendobj\n");
+    }
+
+    private void escrever(final String texto) throws IOException {
+        final byte[] bytes = texto.getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes);
+        posicao += bytes.length;
+    }
+
+    private static byte[] comprimir(final byte[] dados) throws IOException {
+        final var baos = new ByteArrayOutputStream(dados.length / 8);
+        try(final var deflater = new DeflaterOutputStream(baos)) {
+            deflater.write(dados);
+        }
+
+        return baos.toByteArray();
+    }
+
+    /**
+     * Converte uma medida em pixels para pontos PDF.
+     */
+    private static String pontos(final int pixels, final int dpi) {
+        return String.format(Locale.ROOT, "%.2f", pixels * (double) PONTOS_POR_POLEGADA / dpi);
+    }
+}
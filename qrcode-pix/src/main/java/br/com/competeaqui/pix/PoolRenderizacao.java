@@ -0,0 +1,217 @@
+package br.com.competeaqui.pix;
+
+import com.google.zxing.WriterException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Pool limitado de recursos para gerar imagens PNG de QRCodes repetidamente,
+ * evitando alocar a cada imagem uma matriz e um {@link java.awt.image.BufferedImage} do tamanho da imagem,
+ * um {@link java.util.zip.Deflater} e os buffers de saída.
+ *
+ * <p>Cada imagem é {@link #renderizarPng(QRCodePix) emprestada} diretamente do buffer onde foi codificada,
+ * sem cópias, e deve ser {@link Emprestimo#close() devolvida} ao pool depois de usada:</p>
+ *
+ * <pre>{@code
+ * try(final var imagem = pool.renderizarPng(qrCodePix)) {
+ *     imagem.escrever(out);
+ * }
+ * }</pre>
+ *
+ * <p>Se o pool estiver vazio, um novo conjunto de recursos é criado (contabilizado como falta);
+ * se estiver cheio na devolução, os recursos são descartados.
+ * Assim, o pool nunca bloqueia quem o utiliza.</p>
+ *
+ * <p>As imagens são codificadas em preto e branco (1 bit por pixel), com os mesmos pixels que seriam
+ * gerados pelo {@link javax.imageio.ImageIO}. {@link QRCodePix#getBytes(String)} e {@link QRCodePix#write(OutputStream, String)}
+ * usam um pool compartilhado para imagens PNG; um pool próprio permite limitar e monitorar os recursos
+ * e usar as imagens sem copiá-las.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+public final class PoolRenderizacao {
+    private final BlockingQueue<CodificadorPng> livres;
+    private final int capacidade;
+
+    private final LongAdder emprestimos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder descartes = new LongAdder();
+    private final AtomicInteger emUso = new AtomicInteger();
+
+    /**
+     * Cria um pool.
+     * @param capacidade quantidade máxima de conjuntos de recursos mantidos no pool,
+     *                   normalmente a quantidade de threads que geram imagens simultaneamente
+     * @throws IllegalArgumentException se a capacidade for menor que 1
+     */
+    public PoolRenderizacao(final int capacidade) {
+        if(capacidade <= 0)
+            throw new IllegalArgumentException("A capacidade do pool deve ser maior que zero.");
+
+        this.capacidade = capacidade;
+        this.livres = new ArrayBlockingQueue<>(capacidade);
+    }
+
+    /**
+     * Gera a imagem PNG de um QRCode usando recursos do pool.
+     * @param qrCodePix QRCode cuja imagem será gerada
+     *                  (se o código não foi gerado ainda, chama automaticamente o {@link QRCodePix#generate()})
+     * @return a imagem emprestada, que deve ser {@link Emprestimo#close() devolvida} depois de usada
+     */
+    public Emprestimo renderizarPng(final QRCodePix qrCodePix) {
+        requireNonNull(qrCodePix);
+        var codificador = livres.poll();
+        if(codificador == null) {
+            faltas.increment();
+            codificador = new CodificadorPng();
+        }
+
+        emprestimos.increment();
+        emUso.incrementAndGet();
+        try {
+            codificador.codificar(qrCodePix.modulos(), QRCodePix.TAMANHO_IMAGEM);
+            return new Emprestimo(this, codificador);
+        } catch (WriterException e) {
+            devolver(codificador);
+            throw new RuntimeException(e);
+        } catch (RuntimeException e) {
+            devolver(codificador);
+            throw e;
+        }
+    }
+
+    private void devolver(final CodificadorPng codificador) {
+        emUso.decrementAndGet();
+        codificador.limpar();
+        if(!livres.offer(codificador)) {
+            descartes.increment();
+            codificador.finalizar();
+        }
+    }
+
+    /**
+     * {@return a quantidade máxima de conjuntos de recursos mantidos no pool}
+     */
+    public int capacidade() {
+        return capacidade;
+    }
+
+    /**
+     * {@return a quantidade de conjuntos de recursos disponíveis no pool} (ocupação)
+     */
+    public int disponiveis() {
+        return livres.size();
+    }
+
+    /**
+     * {@return a quantidade de imagens emprestadas e ainda não devolvidas}
+     */
+    public int emUso() {
+        return emUso.get();
+    }
+
+    /**
+     * {@return a quantidade total de imagens geradas pelo pool}
+     */
+    public long emprestimos() {
+        return emprestimos.sum();
+    }
+
+    /**
+     * {@return a quantidade de vezes em que o pool estava vazio e novos recursos precisaram ser criados}
+     */
+    public long faltas() {
+        return faltas.sum();
+    }
+
+    /**
+     * {@return a quantidade de recursos descartados na devolução porque o pool estava cheio}
+     */
+    public long descartes() {
+        return descartes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolRenderizacao[capacidade=%d, disponiveis=%d, emUso=%d, emprestimos=%d, faltas=%d, descartes=%d]"
+                .formatted(capacidade, disponiveis(), emUso(), emprestimos(), faltas(), descartes());
+    }
+
+    /**
+     * Uma imagem PNG emprestada de um {@link PoolRenderizacao}.
+     * Os bytes da imagem pertencem ao pool e não podem ser acessados depois do {@link #close()}.
+     * Não é thread-safe.
+     */
+    public static final class Emprestimo implements AutoCloseable {
+        private final PoolRenderizacao pool;
+        private CodificadorPng codificador;
+
+        private Emprestimo(final PoolRenderizacao pool, final CodificadorPng codificador) {
+            this.pool = pool;
+            this.codificador = codificador;
+        }
+
+        /**
+         * {@return o buffer que contém a imagem}, sem cópia. Apenas os {@link #tamanho()} primeiros bytes
+         * pertencem à imagem e o conteúdo não pode ser alterado.
+         * @throws IllegalStateException se a imagem já foi devolvida ao pool
+         */
+        public byte[] bytes() {
+            return codificador().saida();
+        }
+
+        /**
+         * {@return a quantidade de bytes da imagem}
+         * @throws IllegalStateException se a imagem já foi devolvida ao pool
+         */
+        public int tamanho() {
+            return codificador().tamanho();
+        }
+
+        /**
+         * Escreve a imagem em um {@link OutputStream}.
+         * @param out onde a imagem será escrita (não é fechado pelo método)
+         * @throws IOException se ocorrer erro durante a escrita
+         * @throws IllegalStateException se a imagem já foi devolvida ao pool
+         */
+        public void escrever(final OutputStream out) throws IOException {
+            final var cod = codificador();
+            out.write(cod.saida(), 0, cod.tamanho());
+        }
+
+        /**
+         * {@return uma cópia dos bytes da imagem}, que pode ser usada depois da devolução ao pool
+         * @throws IllegalStateException se a imagem já foi devolvida ao pool
+         */
+        public byte[] copiar() {
+            final var cod = codificador();
+            return Arrays.copyOf(cod.saida(), cod.tamanho());
+        }
+
+        /**
+         * Devolve os recursos da imagem ao pool. Chamadas adicionais não têm efeito.
+         */
+        @Override
+        public void close() {
+            if(codificador != null) {
+                pool.devolver(codificador);
+                codificador = null;
+            }
+        }
+
+        private CodificadorPng codificador() {
+            if(codificador == null)
+                throw new IllegalStateException("A imagem já foi devolvida ao pool.");
+
+            return codificador;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package br.com.competeaqui.pix;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Processador reativo ({@link Flow.Processor}) que recebe {@link DadosEnvioPix} e publica um {@link ResultadoPix}
+ * com o código PIX "Copia e Cola" e, opcionalmente, a imagem do QRCode de cada elemento.
+ *
+ * <p>A geração respeita a demanda de quem assina o processador:</p>
+ * <ul>
+ *     <li>no máximo {@code prefetch} elementos são solicitados antecipadamente ao publicador de origem;</li>
+ *     <li>no máximo {@code concorrencia} elementos são gerados ao mesmo tempo ou aguardam a demanda do assinante,
+ *     assim a geração é suspensa quando o assinante não solicita mais elementos.</li>
+ * </ul>
+ *
+ * <p>Os resultados são publicados na mesma ordem em que os dados foram recebidos.
+ * Erros na geração de um elemento são publicados no próprio {@link ResultadoPix}, sem encerrar o fluxo.
+ * Apenas erros do publicador de origem são repassados por {@link Flow.Subscriber#onError(Throwable)}.</p>
+ *
+ * <p>Aceita apenas um assinante.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+public final class ProcessadorPix implements Flow.Processor<DadosEnvioPix, ResultadoPix> {
+    private final Executor executor;
+    private final int concorrencia;
+    private final int prefetch;
+
+    /**
+     * Quantidade de elementos publicados após a qual mais elementos são solicitados à origem,
+     * evitando uma solicitação para cada elemento.
+     */
+    private final int limiteReposicao;
+
+    /**
+     * Formato das imagens geradas, ou null para gerar apenas o código PIX.
+     */
+    private final String formato;
+
+    private volatile Flow.Subscription origem;
+    private volatile Flow.Subscriber<? super ResultadoPix> assinante;
+
+    /**
+     * Elementos recebidos da origem cuja geração ainda não começou.
+     */
+    private final Queue<DadosEnvioPix> recebidos = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Gerações iniciadas, na ordem de recebimento. Acessada apenas dentro do {@link #drenar()}.
+     */
+    private final ArrayDeque<CompletableFuture<ResultadoPix>> emAndamento = new ArrayDeque<>();
+
+    /**
+     * Quantidade de elementos solicitada pelo assinante e ainda não publicada.
+     */
+    private final AtomicLong demanda = new AtomicLong();
+
+    /**
+     * Garante que apenas uma thread por vez execute o {@link #drenar()}
+     * e conta as chamadas recebidas enquanto ele executa.
+     */
+    private final AtomicInteger trabalhoPendente = new AtomicInteger();
+
+    /**
+     * Elementos publicados desde a última solicitação à origem. Acessado apenas dentro do {@link #drenar()}.
+     */
+    private int publicadosSemReposicao;
+
+    private volatile boolean origemConcluida;
+    private volatile Throwable erroOrigem;
+
+    /**
+     * Erro causado pelo assinante ao solicitar uma quantidade inválida de elementos,
+     * que encerra o fluxo imediatamente.
+     */
+    private volatile Throwable erroDemanda;
+    private volatile boolean cancelado;
+    private boolean finalizado;
+
+    /**
+     * Cria um processador que gera apenas o código PIX, usando o {@link ForkJoinPool#commonPool()}.
+     * @param concorrencia quantidade máxima de elementos gerados ao mesmo tempo
+     * @param prefetch quantidade máxima de elementos solicitados antecipadamente à origem
+     */
+    public ProcessadorPix(final int concorrencia, final int prefetch) {
+        this(ForkJoinPool.commonPool(), concorrencia, prefetch, null);
+    }
+
+    /**
+     * Cria um processador.
+     * @param executor executor onde os QRCodes são gerados
+     * @param concorrencia quantidade máxima de elementos gerados ao mesmo tempo
+     *                     ou aguardando a demanda do assinante
+     * @param prefetch quantidade máxima de elementos solicitados antecipadamente à origem
+     * @param formato formato das imagens geradas (como png), ou null para gerar apenas o código PIX
+     * @throws IllegalArgumentException se a concorrência ou prefetch forem menores que 1
+     */
+    public ProcessadorPix(final Executor executor, final int concorrencia, final int prefetch, final String formato) {
+        if(concorrencia <= 0 || prefetch <= 0)
+            throw new IllegalArgumentException("A concorrência e o prefetch devem ser maiores que zero.");
+
+        this.executor = requireNonNull(executor);
+        this.concorrencia = concorrencia;
+        this.prefetch = prefetch;
+        this.limiteReposicao = prefetch - (prefetch >> 2);
+        this.formato = formato;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ResultadoPix> subscriber) {
+        requireNonNull(subscriber);
+        synchronized (this) {
+            if(assinante != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override public void request(final long n) {/**/}
+                    @Override public void cancel() {/**/}
+                });
+                subscriber.onError(new IllegalStateException("O ProcessadorPix aceita apenas um assinante."));
+                return;
+            }
+
+            subscriber.onSubscribe(new Assinatura());
+            assinante = subscriber;
+        }
+
+        drenar();
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        if(origem != null || cancelado) {
+            subscription.cancel();
+            return;
+        }
+
+        origem = subscription;
+        subscription.request(prefetch);
+    }
+
+    @Override
+    public void onNext(final DadosEnvioPix item) {
+        recebidos.add(requireNonNull(item));
+        drenar();
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        erroOrigem = requireNonNull(throwable);
+        origemConcluida = true;
+        drenar();
+    }
+
+    @Override
+    public void onComplete() {
+        origemConcluida = true;
+        drenar();
+    }
+
+    /**
+     * Assinatura entregue ao assinante do processador.
+     */
+    private final class Assinatura implements Flow.Subscription {
+        @Override
+        public void request(final long n) {
+            if(n <= 0) {
+                erroDemanda = new IllegalArgumentException("A quantidade solicitada deve ser maior que zero (regra 3.9 do Reactive Streams).");
+                cancelarOrigem();
+            } else {
+                demanda.getAndAccumulate(n, (atual, novo) -> atual + novo < 0 ? Long.MAX_VALUE : atual + novo);
+            }
+
+            drenar();
+        }
+
+        @Override
+        public void cancel() {
+            cancelado = true;
+            cancelarOrigem();
+            drenar();
+        }
+    }
+
+    private void cancelarOrigem() {
+        final var subscription = origem;
+        if(subscription != null)
+            subscription.cancel();
+    }
+
+    /**
+     * Inicia as gerações permitidas pela concorrência, publica os resultados concluídos
+     * conforme a demanda do assinante e sinaliza o término do fluxo.
+     * Pode ser chamado por qualquer thread, mas apenas uma o executa por vez.
+     */
+    private void drenar() {
+        if(trabalhoPendente.getAndIncrement() != 0)
+            return;
+
+        int chamadas = 1;
+        do {
+            if(cancelado) {
+                descartarPendentes();
+                return;
+            }
+
+            final var subscriber = assinante;
+            if(subscriber != null && !finalizado && erroDemanda != null) {
+                descartarPendentes();
+                finalizado = true;
+                subscriber.onError(erroDemanda);
+            }
+
+            if(!finalizado)
+                iniciarGeracoes();
+
+            if(subscriber != null && !finalizado) {
+                publicar(subscriber);
+                finalizarSeConcluido(subscriber);
+            }
+
+            chamadas = trabalhoPendente.addAndGet(-chamadas);
+        } while (chamadas != 0);
+    }
+
+    private void descartarPendentes() {
+        recebidos.clear();
+        emAndamento.forEach(future -> future.cancel(false));
+        emAndamento.clear();
+    }
+
+    private void iniciarGeracoes() {
+        DadosEnvioPix dados;
+        while (emAndamento.size() < concorrencia && (dados = recebidos.poll()) != null) {
+            final var item = dados;
+            CompletableFuture<ResultadoPix> future;
+            try {
+                future = CompletableFuture.supplyAsync(() -> gerar(item), executor);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.completedFuture(ResultadoPix.falha(item, e));
+            }
+
+            emAndamento.add(future);
+            future.whenComplete((resultado, erro) -> drenar());
+        }
+    }
+
+    private void publicar(final Flow.Subscriber<? super ResultadoPix> subscriber) {
+        long publicados = 0;
+        final long solicitados = demanda.get();
+        while (publicados != solicitados && !cancelado) {
+            final var proximo = emAndamento.peek();
+            if(proximo == null || !proximo.isDone())
+                break;
+
+            emAndamento.poll();
+            subscriber.onNext(proximo.join());
+            publicados++;
+            solicitarMaisDaOrigem();
+            iniciarGeracoes();
+        }
+
+        if(publicados > 0 && solicitados != Long.MAX_VALUE)
+            demanda.addAndGet(-publicados);
+    }
+
+    private void solicitarMaisDaOrigem() {
+        if(++publicadosSemReposicao == limiteReposicao) {
+            publicadosSemReposicao = 0;
+            final var subscription = origem;
+            if(subscription != null && !origemConcluida)
+                subscription.request(limiteReposicao);
+        }
+    }
+
+    private void finalizarSeConcluido(final Flow.Subscriber<? super ResultadoPix> subscriber) {
+        if(!origemConcluida || !recebidos.isEmpty() || !emAndamento.isEmpty())
+            return;
+
+        finalizado = true;
+        final var erro = erroOrigem;
+        if(erro == null)
+            subscriber.onComplete();
+        else subscriber.onError(erro);
+    }
+
+    private ResultadoPix gerar(final DadosEnvioPix dados) {
+        try {
+            final var qrCodePix = new QRCodePix(dados);
+            final var codigo = qrCodePix.generate();
+            final byte[] imagem = formato == null ? null : qrCodePix.getBytes(formato);
+            return ResultadoPix.sucesso(dados, codigo, imagem);
+        } catch (RuntimeException e) {
+            return ResultadoPix.falha(dados, e);
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package br.com.competeaqui.pix;
+
+/*
+ * Classe baseada em uma biblioteca PHP disponível em https://github.com/renatomb/php_qrcode_pix.
+*/
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import org.apache.commons.io.FilenameUtils;
+import javax.imageio.ImageIO;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gera um QRCode para fazer transferências PIX "Copia e Cola".
+ * O código é gerado por {@link CodigoPix}, que pode ser usado diretamente
+ * quando a imagem do QRCode não é necessária.
+ * @see DadosEnvioPix
+ * @see DadosPixDinamico
+ * @see CodigoPix
+ * @author Manoel Campos da Silva Filho
+ * @see #generate()
+ * @see #save(Path)
+ */
+public final class QRCodePix {
+    /**
+     * Código para identificar o campo com o checksum do QRCode gerado.
+     * @see CodigoPix#COD_CRC
+     */
+    public static final String COD_CRC = CodigoPix.COD_CRC;
+
+    /**
+     * Largura e altura das imagens do QRCode em pixels.
+     */
+    static final int TAMANHO_IMAGEM = 300;
+
+    /**
+     * Parâmetros usados pelo zxing para codificar o QRCode.
+     */
+    private static final Map<EncodeHintType, Object> DICAS = dicas();
+
+    /**
+     * Formato de imagem gerado pelo {@link #POOL_PNG}, sem passar pelo {@link ImageIO}.
+     */
+    private static final String FORMATO_PNG = "png";
+
+    /**
+     * Pool usado para gerar as imagens PNG, compartilhado por todas as instâncias.
+     */
+    private static final PoolRenderizacao POOL_PNG = new PoolRenderizacao(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Gera o código PIX "Copia e Cola" que é convertido para imagem.
+     */
+    private final CodigoPix codigoPix;
+
+    /**
+     * Último QRCode gerado.
+     */
+    private String code = "";
+
+    /**
+     * Cria um objeto QRCodePix sem um id da transação
+     * @param dadosPix Dados preenchidos pelo usuário para envio do PIX
+     * @see QRCodePix#QRCodePix(DadosEnvioPix, String)
+     */
+    public QRCodePix(final DadosEnvioPix dadosPix) {
+        this(new CodigoPix(dadosPix));
+    }
+
+    /**
+     * Cria um objeto QRCodePix com um id de transação único.
+     * @param dadosPix Dados preenchidos pelo usuário para envio do PIX
+     * @param idTransacao Identificador único da transação (máx 25 caracteres). Usar *** quando for omitido.
+     *
+     * <p>No lançamento do pix os aplicativos estavam ignorando esse campo e até mesmo
+     * os BRCodes gerados em aplicativos de alguns bancos não apresentavam esse campo.
+     * Porém, recentemente identificou-se que algumas instituições já não estão processando os pix na ausência
+     * desse campo. Ver https://github.com/renatomb/php_qrcode_pix/issues/2</p>
+     *
+     * <p>O conteúdo desse campo é gerado pelo recebedor do pix. Devendo ser um valor único para cada transação, ou ***
+     * quando não for usado, pois esse passa a ser gerado automaticamente. Dada a necessidade de identificador único,
+     * caso haja a opção pelo uso do mesmo, recomendo a utilização de um UUID vinculado ao sistema do recebedor,
+     * o que permitirá a conciliação dos pagamentos que foram recebidos.</p>
+     *
+     * <p>Entretanto, conforme discutido na issue https://github.com/bacen/pix-api/issues/214, o Banco Itaú bloqueia
+     * qualquer código de transação que não tenha sido gerado previamente no aplicativo da instituição.
+     * Desta forma, é necessário solicitar ao gerente da conta a liberação para que a conta do recebedor possa
+     * gerar qrcode do pix fora do aplicativo do banco.
+     * É possível que outras instituições passem a adotar esse posicionamento no futuro.</p>
+     *
+     * <p>Com o uso de QR Code dinâmicos pode-se inclusive definir um WebHook onde o cliente final seja notificado
+     * automaticamente quando determinada transação for recebida. Consulte os detalhes da API da sua instituição.</p>
+     * @see QRCodePix#QRCodePix(DadosEnvioPix)
+     * @see QRCodePix#QRCodePix(DadosEnvioPix, GeradorIdTransacao)
+     * @throws IllegalArgumentException quando o ID da transação é inválido
+     */
+    public QRCodePix(final DadosEnvioPix dadosPix, final String idTransacao) {
+        this(new CodigoPix(dadosPix, idTransacao));
+    }
+
+    /**
+     * Cria um objeto QRCodePix com um id de transação único obtido de um gerador.
+     * @param dadosPix Dados preenchidos pelo usuário para envio do PIX
+     * @param geradorId gerador que fornece o id único da transação
+     * @see QRCodePix#QRCodePix(DadosEnvioPix, String)
+     */
+    public QRCodePix(final DadosEnvioPix dadosPix, final GeradorIdTransacao geradorId) {
+        this(new CodigoPix(dadosPix, geradorId));
+    }
+
+    /**
+     * Cria um objeto QRCodePix para um PIX dinâmico, cujo código contém apenas a URL de localização
+     * da cobrança. O código é menor que o de um PIX estático, gerando um QRCode com menos módulos.
+     * @param dadosDinamico Dados do PIX dinâmico
+     * @see DadosPixDinamico
+     */
+    public QRCodePix(final DadosPixDinamico dadosDinamico) {
+        this(new CodigoPix(dadosDinamico));
+    }
+
+    private QRCodePix(final CodigoPix codigoPix) {
+        this.codigoPix = codigoPix;
+    }
+
+    /**
+     * {@return um nome de arquivo PNG temporário} que pode ser usado para
+     * {@link #save(Path) salvar} a imagem do QRCode {@link #generate() gerado}.
+     * @throws UncheckedIOException se não for possível gerar um nome de arquivo temporário
+     */
+    static Path tempImgFilePath() {
+        try {
+            return Path.of(File.createTempFile("qrcode-pix-", ".png").getAbsoluteFile().getPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gera o QRCode PIX "Copia e Cola" para os dados informados.
+     * @return o código gerado
+     * @see #save(Path)
+     * @see #toString()
+     */
+    public String generate() {
+        return setCode(codigoPix.generate());
+    }
+
+    /**
+     * Armazena o último QRCode gerado.
+     * @param code QR Code gerado
+     * @return
+     */
+    private String setCode(final String code) {
+        this.code = code;
+        return code;
+    }
+
+    /**
+     * Salva o QRCode gerado com {@link #generate()}
+     * em um arquivo de imagem.
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * @param imagePath caminho para o arquivo de imagem a ser gerado
+     * @see #save()
+     * @see #saveAndGetBytes(Path)
+     */
+    public void save(final Path imagePath) {
+        saveAndGetBytes(imagePath);
+    }
+
+    /**
+     * Salva o QRCode gerado com {@link #generate()} em um arquivo de imagem temporário com nome aleatório.
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * @see #save(Path)
+     * @return o caminho do arquivo gerado
+     * @see #saveAndGetBytes(Path)
+     */
+    public Path save() {
+        final Path imagePath = tempImgFilePath();
+        saveAndGetBytes(imagePath);
+        return imagePath;
+    }
+
+    /**
+     * Salva o QRCode gerado com {@link #generate()} em um arquivo de imagem.
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * @param imagePath caminho para o arquivo de imagem a ser gerado
+     * @return um vetor de bytes representando a imagem gerada
+     * @throws IOException se não for possível acessar o arquivo para gravação
+     * @throws WriterException se ocorrer erro durante a gravação de dados no arquivo
+     * @see #save(Path)
+     * @see #save()
+     */
+    public byte[] saveAndGetBytes(final Path imagePath) {
+        //Obtém a extensão do arquivo
+        final var fileFormat = FilenameUtils.getExtension(imagePath.toString());
+        if(fileFormat.isEmpty())
+            throw new IllegalArgumentException("Nome do arquivo deve conter a extensão para indicar o formato da imagem");
+
+        final var byteArray = getBytes(fileFormat);
+        try(final var fos = new FileOutputStream(imagePath.toFile())) {
+            fos.write(byteArray);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        return byteArray;
+    }
+
+    /**
+     * Obtém a imagem do QRCode gerado com {@link #generate()}, sem gravá-la em arquivo.
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * @param fileFormat formato da imagem (como png ou jpg)
+     * @return um vetor de bytes representando a imagem gerada
+     * @see #write(OutputStream, String)
+     * @see #saveAndGetBytes(Path)
+     */
+    public byte[] getBytes(final String fileFormat) {
+        if(FORMATO_PNG.equalsIgnoreCase(fileFormat)) {
+            try(final var imagem = POOL_PNG.renderizarPng(this)) {
+                return imagem.copiar();
+            }
+        }
+
+        final var baos = new ByteArrayOutputStream();
+        writeImageIO(baos, fileFormat);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Escreve a imagem do QRCode gerado com {@link #generate()} em um {@link OutputStream}.
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * Imagens PNG são geradas em preto e branco (1 bit por pixel) por um {@link PoolRenderizacao} compartilhado,
+     * sem criar um {@link BufferedImage}; os demais formatos são gerados pelo {@link ImageIO}.
+     * @param out onde a imagem será escrita (não é fechado pelo método)
+     * @param fileFormat formato da imagem (como png ou jpg)
+     * @throws UncheckedIOException se ocorrer erro durante a escrita
+     * @see #getBytes(String)
+     */
+    public void write(final OutputStream out, final String fileFormat) {
+        if(!FORMATO_PNG.equalsIgnoreCase(fileFormat)) {
+            writeImageIO(out, fileFormat);
+            return;
+        }
+
+        try(final var imagem = POOL_PNG.renderizarPng(this)) {
+            imagem.escrever(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escreve a imagem do QRCode em um {@link OutputStream} usando um {@link BufferedImage} e o {@link ImageIO},
+     * que suporta qualquer formato, mas é bem mais lento que o {@link PoolRenderizacao}.
+     * @param out onde a imagem será escrita (não é fechado pelo método)
+     * @param fileFormat formato da imagem (como png ou jpg)
+     * @throws UncheckedIOException se ocorrer erro durante a escrita
+     */
+    void writeImageIO(final OutputStream out, final String fileFormat) {
+        final int tamanho = TAMANHO_IMAGEM;
+        try {
+            final var bitMatrix = bitMatrix(tamanho);
+            final var image = new BufferedImage(tamanho, tamanho, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < tamanho; y++) {
+                for (int x = 0; x < tamanho; x++) {
+                    final var isBlack = bitMatrix.get(x, y);
+                    final int color = isBlack ? 0 : 0xFFFFFF; //black or white
+                    image.setRGB(x, y, color);
+                }
+            }
+
+            // Usa cache em memória, evitando que o ImageIO crie um arquivo temporário a cada imagem
+            try(final var imageOut = new MemoryCacheImageOutputStream(out)) {
+                ImageIO.write(image, fileFormat, imageOut);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (WriterException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Obtém a imagem do QRCode gerado com {@link #generate()} no formato SVG.
+     * Cada módulo do QRCode ocupa uma unidade da imagem,
+     * que pode ser redimensionada sem perda de qualidade.
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * @return o documento SVG
+     * @see #getBytes(String)
+     */
+    public String getSvg() {
+        try {
+            // Com tamanho 0, cada módulo do QRCode (incluindo a margem) ocupa exatamente 1 posição da matriz
+            final var bitMatrix = bitMatrix(0);
+            final int tamanho = bitMatrix.getWidth();
+            final var sb = new StringBuilder(tamanho * tamanho * 4);
+            sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 %1$d %1$d\" shape-rendering=\"crispEdges\">".formatted(tamanho))
+              .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+            for (int y = 0; y < tamanho; y++) {
+                for (int x = 0; x < tamanho; x++) {
+                    if(bitMatrix.get(x, y))
+                        sb.append('M').append(x).append(' ').append(y).append("h1v1h-1z");
+                }
+            }
+
+            return sb.append("\"/></svg>").toString();
+        } catch (WriterException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Codifica o QRCode gerado com {@link #generate()} em uma matriz de módulos (pixels pretos e brancos).
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * @param tamanho largura e altura da matriz em pixels
+     * @return a matriz onde cada posição verdadeira representa um pixel preto
+     * @throws WriterException se não for possível codificar o QRCode
+     */
+    BitMatrix bitMatrix(final int tamanho) throws WriterException {
+        return new QRCodeWriter().encode(codigoGerado(), BarcodeFormat.QR_CODE, tamanho, tamanho, DICAS);
+    }
+
+    /**
+     * Codifica o QRCode gerado com {@link #generate()} em uma matriz com um elemento por módulo,
+     * sem margem e sem ampliação, que pode ser desenhada em qualquer escala
+     * sem alocar uma matriz do tamanho da imagem.
+     * Se o código não foi gerado ainda, chama automaticamente o {@link #generate()}.
+     * @return a matriz onde cada posição com valor 1 representa um módulo preto
+     * @throws WriterException se não for possível codificar o QRCode
+     * @see #bitMatrix(int)
+     */
+    ByteMatrix modulos() throws WriterException {
+        return Encoder.encode(codigoGerado(), ErrorCorrectionLevel.L, DICAS).getMatrix();
+    }
+
+    private String codigoGerado() {
+        if(code == null || code.isBlank())
+            generate();
+
+        return code;
+    }
+
+    private static Map<EncodeHintType, Object> dicas() {
+        final var hintsMap = new EnumMap<EncodeHintType, Object>(EncodeHintType.class);
+        hintsMap.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.L);
+        hintsMap.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        return Collections.unmodifiableMap(hintsMap);
+    }
+
+    /**
+     * {@return o último QRCode gerado.}
+     * @see #generate()
+     */
+    @Override
+    public String toString() {
+        return code;
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.competeaqui.pix;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Resultado da geração de um QRCode PIX por um {@link ProcessadorPix}.
+ * Falhas são informadas individualmente para cada elemento, sem interromper o fluxo.
+ *
+ * @param dados dados do PIX que foram processados
+ * @param codigo código PIX "Copia e Cola" gerado, ou null se ocorreu erro
+ * @param imagem bytes da imagem do QRCode, ou null se ocorreu erro ou o processador não gera imagens
+ * @param erro erro ocorrido ao processar os dados, ou null em caso de sucesso
+ * @author Manoel Campos da Silva Filho
+ */
+public record ResultadoPix(DadosEnvioPix dados, String codigo, byte[] imagem, Throwable erro) {
+    public ResultadoPix {
+        requireNonNull(dados);
+        if((codigo == null) == (erro == null))
+            throw new IllegalArgumentException("Deve ser informado o código gerado ou o erro ocorrido (e não ambos).");
+    }
+
+    /**
+     * Cria um resultado de sucesso.
+     * @param dados dados do PIX que foram processados
+     * @param codigo código PIX "Copia e Cola" gerado
+     * @param imagem bytes da imagem do QRCode, ou null se não foi gerada
+     * @return o resultado criado
+     */
+    public static ResultadoPix sucesso(final DadosEnvioPix dados, final String codigo, final byte[] imagem) {
+        return new ResultadoPix(dados, requireNonNull(codigo), imagem, null);
+    }
+
+    /**
+     * Cria um resultado de falha.
+     * @param dados dados do PIX que foram processados
+     * @param erro erro ocorrido ao processar os dados
+     * @return o resultado criado
+     */
+    public static ResultadoPix falha(final DadosEnvioPix dados, final Throwable erro) {
+        return new ResultadoPix(dados, null, null, requireNonNull(erro));
+    }
+
+    /**
+     * {@return true se o QRCode foi gerado, false se ocorreu erro}
+     */
+    public boolean sucesso() {
+        return erro == null;
+    }
+}
@@ -0,0 +1,267 @@
+package br.com.competeaqui.pix;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.ReaderException;
+import com.google.zxing.RGBLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+
+import javax.imageio.ImageIO;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Verifica em lote se imagens de QRCodes arquivadas ainda contêm códigos PIX válidos,
+ * lendo-as de uma pasta ou de um arquivo ZIP (como os gerados por {@link GeradorLote}).
+ *
+ * <p>Para cada imagem, o QRCode é decodificado, o checksum CRC16 é conferido e o código é
+ * {@link LeitorCodigoPix#ler(String) lido} novamente como {@link DadosEnvioPix} e id da transação
+ * (ou como {@link DadosPixDinamico} para códigos dinâmicos). O código gerado novamente a partir desses dados
+ * deve ser igual ao lido, assim campos que a leitura ou a validação descartam ou alteram também são reportados.
+ * Se existir um arquivo .txt com o mesmo nome da imagem, o código lido deve ser igual ao registrado nele.
+ * Cada divergência é reportada assim que encontrada, na ordem em que as imagens são listadas.</p>
+ *
+ * <p>As imagens são decodificadas em paralelo, mas a quantidade de imagens em processamento
+ * é limitada e a origem é percorrida sob demanda, assim arquivos muito grandes não são carregados inteiros em memória.</p>
+ *
+ * @see AppPixQRCodeGenerator
+ * @author Manoel Campos da Silva Filho
+ */
+final class VerificadorLote {
+    /**
+     * Quantidade de imagens em processamento por thread, antes que a listagem da origem aguarde.
+     */
+    private static final int IMAGENS_POR_THREAD = 4;
+
+    private static final Set<String> EXTENSOES_IMAGEM = Set.of("png", "jpg", "jpeg", "gif", "bmp");
+
+    /**
+     * Parâmetros para imagens geradas por esta biblioteca, onde o QRCode ocupa a imagem inteira.
+     */
+    private static final Map<DecodeHintType, Object> DICAS_PURO = dicas(DecodeHintType.PURE_BARCODE);
+
+    /**
+     * Parâmetros para imagens digitalizadas ou alteradas, cuja leitura é mais lenta.
+     */
+    private static final Map<DecodeHintType, Object> DICAS_COMPLETO = dicas(DecodeHintType.TRY_HARDER);
+
+    /**
+     * Resultado da verificação de uma imagem.
+     * @param nome nome da imagem na origem
+     * @param codigo código PIX contido na imagem
+     * @param latenciaNanos tempo gasto para verificar a imagem
+     */
+    record Verificacao(String nome, String codigo, long latenciaNanos) {}
+
+    /**
+     * Uma imagem a ser verificada, cujo conteúdo só é lido na thread que a processa.
+     * @param nome nome da imagem na origem
+     * @param imagem lê os bytes da imagem
+     * @param registrado lê o código registrado para a imagem, ou retorna null se não existe registro
+     */
+    private record Item(String nome, Callable<byte[]> imagem, Callable<String> registrado) {}
+
+    private final int threads;
+
+    /**
+     * Cria um verificador de lotes.
+     * @param threads quantidade de threads para decodificar as imagens
+     */
+    VerificadorLote(final int threads) {
+        if(threads <= 0)
+            throw new IllegalArgumentException("A quantidade de threads deve ser maior que zero.");
+
+        this.threads = threads;
+    }
+
+    /**
+     * Verifica todas as imagens de uma pasta (incluindo subpastas) ou arquivo ZIP.
+     * @param origem pasta ou arquivo .zip com as imagens
+     * @param divergencias onde as imagens que não puderam ser verificadas são reportadas, uma por linha
+     * @return as estatísticas da execução, onde cada divergência é contabilizada como erro
+     * @throws IOException se ocorrer erro ao acessar a origem
+     */
+    EstatisticasLote verificar(final Path origem, final PrintStream divergencias) throws IOException {
+        if(Files.isDirectory(origem)) {
+            try(final var arquivos = Files.walk(origem)) {
+                return verificar(itensPasta(origem, arquivos).iterator(), divergencias);
+            }
+        }
+
+        try(final var zip = new ZipFile(origem.toFile(), StandardCharsets.UTF_8)) {
+            return verificar(itensZip(zip).iterator(), divergencias);
+        }
+    }
+
+    private EstatisticasLote verificar(final Iterator<Item> itens, final PrintStream divergencias) throws IOException {
+        final var estatisticas = new EstatisticasLote();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final var pendentes = new ArrayDeque<Future<Verificacao>>();
+        final int maxPendentes = threads * IMAGENS_POR_THREAD;
+        try {
+            while (itens.hasNext()) {
+                final var item = itens.next();
+                pendentes.add(executor.submit(() -> verificar(item)));
+                if(pendentes.size() >= maxPendentes)
+                    reportarProximo(pendentes, estatisticas, divergencias);
+            }
+
+            while (!pendentes.isEmpty())
+                reportarProximo(pendentes, estatisticas, divergencias);
+        } finally {
+            executor.shutdownNow();
+            estatisticas.finalizar();
+        }
+
+        return estatisticas;
+    }
+
+    private static void reportarProximo(
+        final ArrayDeque<Future<Verificacao>> pendentes,
+        final EstatisticasLote estatisticas, final PrintStream divergencias) throws IOException
+    {
+        try {
+            estatisticas.registrarSucesso(pendentes.remove().get().latenciaNanos());
+        } catch (ExecutionException e) {
+            estatisticas.registrarErro();
+            divergencias.println(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Verificação do lote interrompida");
+        }
+    }
+
+    /**
+     * Verifica uma imagem.
+     * @throws IllegalArgumentException se a imagem não contém um código PIX válido ou
+     *                                  o código difere do registrado
+     */
+    private static Verificacao verificar(final Item item) {
+        final long inicio = System.nanoTime();
+        try {
+            final var codigo = decodificar(item.imagem().call());
+            final var regerado = regerar(codigo);
+            if(!regerado.equals(codigo))
+                throw new IllegalArgumentException("Código lido difere do gerado a partir dos seus dados. Lido: %s Gerado: %s".formatted(codigo, regerado));
+
+            final var registrado = item.registrado().call();
+            if(registrado != null && !registrado.strip().equals(codigo))
+                throw new IllegalArgumentException("Código lido difere do registrado. Lido: %s Registrado: %s".formatted(codigo, registrado.strip()));
+
+            return new Verificacao(item.nome(), codigo, System.nanoTime() - inicio);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("%s: %s".formatted(item.nome(), e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Lê os dados de um código PIX e gera o código novamente a partir deles.
+     * O resultado só é igual ao código original se nenhum dado foi perdido ou alterado na leitura e validação.
+     * @param codigo código PIX a ser lido
+     * @return o código gerado novamente
+     * @throws IllegalArgumentException se o código não puder ser lido
+     */
+    static String regerar(final String codigo) {
+        if(LeitorCodigoPix.isDinamico(codigo))
+            return new CodigoPix(LeitorCodigoPix.lerDinamico(codigo)).generate();
+
+        return LeitorCodigoPix.ler(codigo).codigoPix().generate();
+    }
+
+    /**
+     * Decodifica o QRCode contido em uma imagem.
+     * @param imagem bytes da imagem, em qualquer formato suportado pelo {@link ImageIO}
+     * @return o texto contido no QRCode
+     * @throws IOException se a imagem não puder ser lida
+     * @throws IllegalArgumentException se a imagem não tiver um QRCode legível
+     */
+    static String decodificar(final byte[] imagem) throws IOException {
+        final var image = ImageIO.read(new ByteArrayInputStream(imagem));
+        if(image == null)
+            throw new IllegalArgumentException("Formato de imagem não suportado.");
+
+        final int largura = image.getWidth();
+        final int altura = image.getHeight();
+        final int[] pixels = image.getRGB(0, 0, largura, altura, null, 0, largura);
+        final var bitmap = new BinaryBitmap(new HybridBinarizer(new RGBLuminanceSource(largura, altura, pixels)));
+        final var reader = new QRCodeReader();
+        try {
+            return reader.decode(bitmap, DICAS_PURO).getText();
+        } catch (ReaderException e) {
+            // A leitura rápida só funciona se o QRCode ocupar a imagem inteira, sem distorções
+            reader.reset();
+        }
+
+        try {
+            return reader.decode(bitmap, DICAS_COMPLETO).getText();
+        } catch (ReaderException e) {
+            throw new IllegalArgumentException("QRCode não encontrado ou ilegível na imagem.", e);
+        }
+    }
+
+    private static Stream<Item> itensPasta(final Path pasta, final Stream<Path> arquivos) {
+        return arquivos
+                .filter(Files::isRegularFile)
+                .filter(arquivo -> isImagem(arquivo.toString()))
+                .map(arquivo -> {
+                    final var txt = arquivo.resolveSibling(semExtensao(arquivo.getFileName().toString()) + ".txt");
+                    final Callable<String> registrado = () -> Files.exists(txt) ? Files.readString(txt, StandardCharsets.UTF_8) : null;
+                    return new Item(pasta.relativize(arquivo).toString(), () -> Files.readAllBytes(arquivo), registrado);
+                });
+    }
+
+    /**
+     * Lista as imagens de um ZIP. O {@link ZipFile} permite ler as entradas em qualquer ordem
+     * e por várias threads, assim a imagem e o .txt correspondente são lidos juntos, sem manter
+     * outras entradas em memória.
+     */
+    private static Stream<Item> itensZip(final ZipFile zip) {
+        return zip.stream()
+                .filter(entrada -> !entrada.isDirectory() && isImagem(entrada.getName()))
+                .map(entrada -> {
+                    final var txt = zip.getEntry(semExtensao(entrada.getName()) + ".txt");
+                    final Callable<String> registrado = () -> txt == null ? null : new String(ler(zip, txt), StandardCharsets.UTF_8);
+                    return new Item(entrada.getName(), () -> ler(zip, entrada), registrado);
+                });
+    }
+
+    private static byte[] ler(final ZipFile zip, final ZipEntry entrada) throws IOException {
+        try(final var in = zip.getInputStream(entrada)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static boolean isImagem(final String nome) {
+        final int ponto = nome.lastIndexOf('.');
+        return ponto > 0 && EXTENSOES_IMAGEM.contains(nome.substring(ponto + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static String semExtensao(final String nome) {
+        final int ponto = nome.lastIndexOf('.');
+        return ponto < 0 ? nome : nome.substring(0, ponto);
+    }
+
+    private static Map<DecodeHintType, Object> dicas(final DecodeHintType modo) {
+        final var dicas = new EnumMap<DecodeHintType, Object>(DecodeHintType.class);
+        dicas.put(DecodeHintType.CHARACTER_SET, "UTF-8");
+        dicas.put(modo, Boolean.TRUE);
+        return dicas;
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link AquecimentoPix}.
+ * @author Manoel Campos da Silva Filho
+ */
+class AquecimentoPixTest {
+    @Test
+    void executar() {
+        final int maxIteracoes = 2 * AquecimentoPix.ITERACOES_POR_RODADA;
+        final var pool = new PoolRenderizacao(1);
+        final var etapas = new AtomicInteger();
+        final var resultado = new AquecimentoPix(maxIteracoes, Duration.ofMinutes(2), pool, "png")
+                .executar(qrCodePix -> etapas.incrementAndGet());
+
+        assertEquals(maxIteracoes, resultado.iteracoes(), resultado.toString());
+        assertTrue(resultado.totalNanos() >= resultado.inicializacaoNanos());
+        assertTrue(resultado.toString().startsWith("Aquecimento: "));
+
+        // Cada iteração gera um QRCode estático e um dinâmico
+        assertEquals(2L * resultado.iteracoes(), etapas.get());
+        assertEquals(2L * resultado.iteracoes(), pool.emprestimos());
+        assertEquals(1, pool.faltas());
+        assertEquals(1, pool.disponiveis());
+    }
+
+    @Test
+    void executarAteEstabilizar() {
+        // Cada leitura do relógio avança 1 ms, assim todas as rodadas têm a mesma duração
+        final var agora = new AtomicLong();
+        final var relogio = (LongSupplier) () -> agora.addAndGet(1_000_000);
+        final var resultado = new AquecimentoPix(5000, Duration.ofMinutes(2), new PoolRenderizacao(1), relogio).executar();
+
+        assertTrue(resultado.estavel(), resultado.toString());
+        // São necessárias 3 rodadas para ter 2 rodadas estáveis consecutivas
+        assertEquals(3 * AquecimentoPix.ITERACOES_POR_RODADA, resultado.iteracoes());
+        assertEquals(1_000_000 / AquecimentoPix.ITERACOES_POR_RODADA, resultado.mediaFinalNanos());
+        assertTrue(resultado.toString().endsWith("estável"), resultado.toString());
+    }
+
+    @Test
+    void executarSemEstabilizar() {
+        // Cada leitura do relógio avança o dobro da anterior, assim cada rodada demora mais que a anterior
+        final var passo = new AtomicLong(1_000_000);
+        final var agora = new AtomicLong();
+        final var relogio = (LongSupplier) () -> agora.addAndGet(passo.getAndUpdate(p -> p * 2));
+        final int maxIteracoes = 4 * AquecimentoPix.ITERACOES_POR_RODADA;
+        final var resultado = new AquecimentoPix(maxIteracoes, Duration.ofDays(1), new PoolRenderizacao(1), relogio).executar();
+
+        assertFalse(resultado.estavel(), resultado.toString());
+        assertEquals(maxIteracoes, resultado.iteracoes());
+    }
+
+    @Test
+    void executarLimitadoPelasIteracoes() {
+        // Com 50 + 50 + 20 iterações, há no máximo 2 comparações entre rodadas, que terminam junto com o limite
+        final var resultado = new AquecimentoPix(120, Duration.ofMinutes(2), "png").executar();
+        assertEquals(120, resultado.iteracoes());
+    }
+
+    @Test
+    void executarLimitadoPeloTempo() {
+        final var resultado = new AquecimentoPix(10_000, Duration.ZERO).executar();
+        assertEquals(0, resultado.iteracoes());
+        assertFalse(resultado.estavel());
+    }
+
+    @Test
+    void formatoInvalido() {
+        final var exception = assertThrows(IllegalArgumentException.class, () -> new AquecimentoPix(10, Duration.ofSeconds(1), "xyz"));
+        assertTrue(exception.getMessage().contains("xyz"));
+    }
+
+    @Test
+    void iteracoesInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> new AquecimentoPix(0, Duration.ofSeconds(1), "png"));
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link FolhaQRCodes}.
+ * @author Manoel Campos da Silva Filho
+ */
+class FolhaQRCodesTest {
+    private static final LayoutFolha LAYOUT = LayoutFolha.a4(72, 2, 2);
+
+    @Test
+    void comporGeraPaginasNecessarias() {
+        final var instance = new FolhaQRCodes(LAYOUT);
+        final var numeros = new ArrayList<Integer>();
+        final int paginas = instance.compor(codigos(5).iterator(), (numero, pagina) -> numeros.add(numero));
+        assertEquals(2, paginas);
+        assertEquals(List.of(1, 2), numeros);
+    }
+
+    @Test
+    void comporSemCodigos() {
+        final var instance = new FolhaQRCodes(LAYOUT);
+        assertEquals(0, instance.compor(List.<QRCodePix>of().iterator(), (numero, pagina) -> fail()));
+    }
+
+    @Test
+    void comporDesenhaModulosNaPagina() {
+        final var instance = new FolhaQRCodes(LAYOUT, qrCode -> qrCode.toString().substring(0, 10));
+        instance.compor(codigos(1).iterator(), (numero, pagina) -> {
+            assertEquals(LAYOUT.larguraPx(), pagina.getWidth());
+            assertEquals(LAYOUT.alturaPx(), pagina.getHeight());
+            assertTrue(contemPixelPreto(pagina));
+        });
+    }
+
+    @Test
+    void salvarPng(@TempDir final Path pasta) throws IOException {
+        final var instance = new FolhaQRCodes(LAYOUT);
+        assertEquals(2, instance.salvar(codigos(5), pasta, FolhaQRCodes.FORMATO_PNG));
+        assertTrue(Files.exists(pasta.resolve("pagina-0001.png")));
+        assertTrue(Files.exists(pasta.resolve("pagina-0002.png")));
+    }
+
+    @Test
+    void salvarPdf(@TempDir final Path pasta) throws IOException {
+        final var instance = new FolhaQRCodes(LAYOUT);
+        assertEquals(1, instance.salvar(codigos(4), pasta, FolhaQRCodes.FORMATO_PDF));
+        final var conteudo = new String(Files.readAllBytes(pasta.resolve("pagina-0001.pdf")), StandardCharsets.ISO_8859_1);
+        assertTrue(conteudo.startsWith("%PDF-"));
+        assertTrue(conteudo.stripTrailing().endsWith("%%EOF"));
+    }
+
+    @Test
+    void escreverFormatoInvalido() {
+        final var instance = new FolhaQRCodes(LAYOUT);
+        final var pagina = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        assertThrows(IllegalArgumentException.class, () -> instance.escrever(pagina, "gif", new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void layoutCelulasMuitoPequenas() {
+        final var layout = LayoutFolha.a4(10, 20, 20);
+        assertThrows(IllegalArgumentException.class, () -> new FolhaQRCodes(layout));
+    }
+
+    @Test
+    void comporLayoutDensoGeraQRCodesLegiveis() {
+        // Células de 65 px: o QRCode de 41 módulos, mais a zona de silêncio, cabe apenas na escala 1
+        final var layout = LayoutFolha.a4(72, 12, 8);
+        final var codigos = codigos(2);
+        new FolhaQRCodes(layout).compor(codigos.iterator(), (numero, pagina) -> {
+            for (int i = 0; i < codigos.size(); i++) {
+                final var celula = pagina.getSubimage(
+                        layout.margemPx() + i * layout.larguraCelulaPx(), layout.margemPx(),
+                        layout.larguraCelulaPx(), layout.alturaCelulaPx());
+                final var imagem = new ByteArrayOutputStream();
+                ImageIO.write(celula, "png", imagem);
+                assertEquals(codigos.get(i).generate(), VerificadorLote.decodificar(imagem.toByteArray()));
+            }
+        });
+    }
+
+    @Test
+    void comporMesmoQRCodeEmVariasCelulas() {
+        // O código ainda não foi gerado: ele é gerado uma única vez, antes de as células serem desenhadas em paralelo
+        final var qrCode = codigos(1).get(0);
+        final var lote = List.of(qrCode, qrCode, qrCode, qrCode);
+        new FolhaQRCodes(LAYOUT).compor(lote.iterator(), (numero, pagina) -> {
+            for (int i = 0; i < lote.size(); i++) {
+                final var celula = pagina.getSubimage(
+                        LAYOUT.margemPx() + i % LAYOUT.colunas() * LAYOUT.larguraCelulaPx(),
+                        LAYOUT.margemPx() + i / LAYOUT.colunas() * LAYOUT.alturaCelulaPx(),
+                        LAYOUT.larguraCelulaPx(), LAYOUT.alturaCelulaPx());
+                final var imagem = new ByteArrayOutputStream();
+                ImageIO.write(celula, "png", imagem);
+                assertEquals(qrCode.generate(), VerificadorLote.decodificar(imagem.toByteArray()));
+            }
+        });
+    }
+
+    @Test
+    void comporCelulaMenorQueQRCode() {
+        // Células de 39 px, menores que os 49 px do QRCode com a zona de silêncio
+        final var instance = new FolhaQRCodes(LayoutFolha.a4(72, 20, 8));
+        final var exception = assertThrows(IllegalArgumentException.class, () -> instance.compor(codigos(1).iterator(), (numero, pagina) -> fail()));
+        assertTrue(exception.getMessage().contains("49 px"), exception.getMessage());
+    }
+
+    @Test
+    void layoutMargemInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new LayoutFolha(100, 100, 300, 1, 1, 50));
+    }
+
+    private static List<QRCodePix> codigos(final int quantidade) {
+        return IntStream.range(0, quantidade)
+                        .mapToObj(i -> new DadosEnvioPix("Manoel", "11111111111", new BigDecimal(i + 1), "Palmas"))
+                        .map(QRCodePix::new)
+                        .toList();
+    }
+
+    private static boolean contemPixelPreto(final BufferedImage pagina) {
+        for (int y = 0; y < pagina.getHeight(); y++) {
+            for (int x = 0; x < pagina.getWidth(); x++) {
+                if((pagina.getRGB(x, y) & 0xFFFFFF) == 0)
+                    return true;
+            }
+        }
+
+        return false;
+    }
+}
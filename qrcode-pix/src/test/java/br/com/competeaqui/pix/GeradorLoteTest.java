@@ -0,0 +1,171 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link GeradorLote}.
+ * @author Manoel Campos da Silva Filho
+ */
+class GeradorLoteTest {
+    /**
+     * Registro que deve gerar o mesmo código de {@link QRCodePixTest}.
+     */
+    private static final String REGISTRO = "Manoel;11111111111;1.0;Palmas";
+
+    /**
+     * Código gerado para os mesmos dados do {@link #REGISTRO}.
+     */
+    private static final String QRCODE = new CodigoPix(new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas")).generate();
+
+    @Test
+    void processarTextoMantemOrdemEIgnoraComentarios() throws IOException {
+        final var entrada = "# comentário\n%s\n\n%s;Descricao;TX1\n%s\n".formatted(REGISTRO, REGISTRO, REGISTRO);
+        final var out = new ByteArrayOutputStream();
+        final var gerador = new GeradorLote(3, GeradorLote.Modo.CODIGO, "png");
+
+        final EstatisticasLote estatisticas;
+        try(final var destino = GeradorLote.destinoTexto(out)) {
+            estatisticas = gerador.processar(reader(entrada), destino, new PrintStream(new ByteArrayOutputStream()));
+        }
+
+        final var linhas = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, linhas.size());
+        assertEquals(QRCODE, linhas.get(0));
+        assertTrue(linhas.get(1).contains("TX1"));
+        assertEquals(QRCODE, linhas.get(2));
+        assertEquals(3, estatisticas.sucessos());
+        assertEquals(0, estatisticas.erros());
+    }
+
+    @Test
+    void processarRegistrosInvalidosNaoInterrompe() throws IOException {
+        final var entrada = "%s\nManoel;111;abc;Palmas\nincompleto\n%s\n".formatted(REGISTRO, REGISTRO);
+        final var erros = new ByteArrayOutputStream();
+        final var gerador = new GeradorLote(2, GeradorLote.Modo.CODIGO, "png");
+
+        final var estatisticas = gerador.processar(reader(entrada), GeradorLote.destinoTexto(new ByteArrayOutputStream()), new PrintStream(erros));
+        assertEquals(2, estatisticas.sucessos());
+        assertEquals(2, estatisticas.erros());
+        final var mensagens = erros.toString();
+        assertTrue(mensagens.contains("Linha 2"));
+        assertTrue(mensagens.contains("Linha 3"));
+    }
+
+    @Test
+    void processarPasta(@TempDir final Path pasta) throws IOException {
+        final var gerador = new GeradorLote(2, GeradorLote.Modo.AMBOS, "png");
+        try(final var destino = gerador.destinoPasta(pasta)) {
+            gerador.processar(reader(REGISTRO + ";;TX1\n" + REGISTRO), destino, System.err);
+        }
+
+        assertTrue(Files.exists(pasta.resolve("TX1.png")));
+        assertTrue(Files.exists(pasta.resolve("000002.png")));
+        assertEquals(QRCODE, Files.readString(pasta.resolve("000002.txt")));
+    }
+
+    @Test
+    void processarZip() throws IOException {
+        final var gerador = new GeradorLote(2, GeradorLote.Modo.IMAGEM, "png");
+        final var out = new ByteArrayOutputStream();
+        try(final var destino = gerador.destinoZip(out)) {
+            gerador.processar(reader(REGISTRO + "\n" + REGISTRO), destino, System.err);
+        }
+
+        final var nomes = new ArrayList<String>();
+        try(final var zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry())
+                nomes.add(entry.getName());
+        }
+
+        assertEquals(List.of("000001.png", "000002.png"), nomes);
+    }
+
+    @Test
+    void processarZipIdsRepetidosOuComPastas() throws IOException {
+        final var gerador = new GeradorLote(2, GeradorLote.Modo.IMAGEM, "png");
+        final var out = new ByteArrayOutputStream();
+        final var erros = new ByteArrayOutputStream();
+        final EstatisticasLote estatisticas;
+        try(final var destino = gerador.destinoZip(out)) {
+            final var entrada = "%1$s;;TX1\n%1$s;;tx1\n%1$s;;../TX2\n%1$s;;TX3\n".formatted(REGISTRO);
+            estatisticas = gerador.processar(reader(entrada), destino, new PrintStream(erros, true, StandardCharsets.UTF_8));
+        }
+
+        final var nomes = new ArrayList<String>();
+        try(final var zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry())
+                nomes.add(entry.getName());
+        }
+
+        assertEquals(List.of("TX1.png", "___TX2.png", "TX3.png"), nomes);
+        assertEquals(3, estatisticas.sucessos());
+        assertEquals(1, estatisticas.erros());
+        assertTrue(erros.toString(StandardCharsets.UTF_8).startsWith("Linha 2:"));
+    }
+
+    @Test
+    void processarPastaNaoSobrescreveArquivos(@TempDir final Path pasta) throws IOException {
+        final var gerador = new GeradorLote(2, GeradorLote.Modo.CODIGO, "png");
+        final EstatisticasLote estatisticas;
+        try(final var destino = gerador.destinoPasta(pasta)) {
+            estatisticas = gerador.processar(reader(REGISTRO + ";;000002\n" + REGISTRO), destino, new PrintStream(new ByteArrayOutputStream()));
+        }
+
+        assertEquals(1, estatisticas.erros());
+        assertTrue(Files.readString(pasta.resolve("000002.txt")).contains("000002"));
+    }
+
+    @Test
+    void formatoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> new GeradorLote(1, GeradorLote.Modo.IMAGEM, "xyz"));
+    }
+
+    @Test
+    void estatisticasPercentis() {
+        final var estatisticas = new EstatisticasLote();
+        for (int i = 1; i <= 100; i++)
+            estatisticas.registrarSucesso(i * 1_000_000L);
+        estatisticas.finalizar();
+
+        // Os percentis têm erro relativo menor que 1%; o mínimo, o máximo e a média são exatos
+        assertEquals(50, estatisticas.percentilMs(50), 0.5);
+        assertEquals(99, estatisticas.percentilMs(99), 0.99);
+        assertEquals(1, estatisticas.percentilMs(0));
+        assertEquals(100, estatisticas.percentilMs(100));
+        assertEquals(50.5, estatisticas.mediaMs(), 1e-9);
+    }
+
+    @Test
+    void estatisticasLatenciasExtremas() {
+        final var estatisticas = new EstatisticasLote();
+        estatisticas.registrarSucesso(0);
+        estatisticas.registrarSucesso(100);
+        estatisticas.registrarSucesso(Long.MAX_VALUE);
+        estatisticas.finalizar();
+
+        assertEquals(0, estatisticas.percentilMs(0));
+        assertEquals(100 / 1_000_000.0, estatisticas.percentilMs(50));
+        assertEquals(Long.MAX_VALUE / 1_000_000.0, estatisticas.percentilMs(100));
+    }
+
+    @Test
+    void threadsInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> new GeradorLote(0, GeradorLote.Modo.CODIGO, "png"));
+    }
+
+    private static BufferedReader reader(final String entrada) {
+        return new BufferedReader(new StringReader(entrada));
+    }
+}
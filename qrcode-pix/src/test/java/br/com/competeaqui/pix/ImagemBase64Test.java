@@ -0,0 +1,74 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link ImagemBase64}.
+ * @author Manoel Campos da Silva Filho
+ */
+class ImagemBase64Test {
+    private static final DadosEnvioPix DADOS = new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas");
+
+    private static final String BASE64_ESPERADO = Base64.getEncoder().encodeToString(new QRCodePix(DADOS).getBytes("png"));
+
+    @Test
+    void escreverOutputStream() {
+        final var out = new ByteArrayOutputStream();
+        ImagemBase64.escrever(new QRCodePix(DADOS), "png", out);
+        assertEquals(BASE64_ESPERADO, out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void escreverWriter() {
+        final var writer = new StringWriter();
+        ImagemBase64.escrever(new QRCodePix(DADOS), "png", writer);
+        assertEquals(BASE64_ESPERADO, writer.toString());
+    }
+
+    @Test
+    void escreverDataUriOutputStream() {
+        final var out = new ByteArrayOutputStream();
+        ImagemBase64.escreverDataUri(new QRCodePix(DADOS), "png", out);
+        assertEquals("data:image/png;base64," + BASE64_ESPERADO, out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void dataUri() {
+        assertEquals("data:image/png;base64," + BASE64_ESPERADO, ImagemBase64.dataUri(new QRCodePix(DADOS), "png"));
+    }
+
+    @Test
+    void escreverDataUriJson() {
+        final var sb = new StringBuilder("{\"qrcode\":");
+        ImagemBase64.escreverDataUriJson(new QRCodePix(DADOS), "png", sb);
+        sb.append('}');
+        assertEquals("{\"qrcode\":\"data:image/png;base64," + BASE64_ESPERADO + "\"}", sb.toString());
+    }
+
+    @Test
+    void prefixoDataUriJpg() {
+        assertEquals("data:image/jpeg;base64,", ImagemBase64.prefixoDataUri("JPG"));
+    }
+
+    @Test
+    void escreverNaoFechaOutputStream() {
+        final var fechado = new boolean[1];
+        final var out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fechado[0] = true;
+            }
+        };
+
+        ImagemBase64.escrever(new QRCodePix(DADOS), "png", out);
+        assertFalse(fechado[0]);
+    }
+}
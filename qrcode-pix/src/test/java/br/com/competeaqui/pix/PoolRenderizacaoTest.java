@@ -0,0 +1,161 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link PoolRenderizacao}.
+ * @author Manoel Campos da Silva Filho
+ */
+class PoolRenderizacaoTest {
+    private static final DadosEnvioPix DADOS = new DadosEnvioPix("Manoel", "11111111111", new BigDecimal(1), "Palmas");
+
+    @Test
+    void renderizarPngTemMesmosPixelsDoImageIO() {
+        final var qrCodePix = new QRCodePix(DADOS);
+        final var pool = new PoolRenderizacao(1);
+        try(final var imagem = pool.renderizarPng(qrCodePix)) {
+            assertPixelsIguais(ler(pngImageIO(qrCodePix)), ler(imagem.copiar()));
+        }
+    }
+
+    @Test
+    void renderizarPngDescricaoLongaTemMesmosPixelsDoImageIO() {
+        final var dados = new DadosEnvioPix("Manoel", "manoel@email.com", new BigDecimal("1234.56"), "Palmas", "D".repeat(50));
+        final var qrCodePix = new QRCodePix(dados, "TX123");
+        try(final var imagem = new PoolRenderizacao(1).renderizarPng(qrCodePix)) {
+            assertPixelsIguais(ler(pngImageIO(qrCodePix)), ler(imagem.copiar()));
+        }
+    }
+
+    @Test
+    void emprestimoSemCopia() throws IOException {
+        final var pool = new PoolRenderizacao(1);
+        try(final var imagem = pool.renderizarPng(new QRCodePix(DADOS))) {
+            final var out = new ByteArrayOutputStream();
+            imagem.escrever(out);
+            assertEquals(imagem.tamanho(), out.size());
+            assertTrue(imagem.bytes().length >= imagem.tamanho());
+            assertArrayEquals(imagem.copiar(), out.toByteArray());
+        }
+    }
+
+    @Test
+    void recursosSaoReutilizados() {
+        final var pool = new PoolRenderizacao(2);
+        final var qrCodePix = new QRCodePix(DADOS);
+        final byte[] primeiraImagem;
+        final byte[] buffer;
+        try(final var imagem = pool.renderizarPng(qrCodePix)) {
+            assertEquals(1, pool.emUso());
+            primeiraImagem = imagem.copiar();
+            buffer = imagem.bytes();
+        }
+
+        assertEquals(0, pool.emUso());
+        assertEquals(1, pool.disponiveis());
+        try(final var imagem = pool.renderizarPng(qrCodePix)) {
+            assertSame(buffer, imagem.bytes());
+            assertArrayEquals(primeiraImagem, imagem.copiar());
+        }
+
+        assertEquals(2, pool.emprestimos());
+        assertEquals(1, pool.faltas());
+        assertEquals(0, pool.descartes());
+    }
+
+    @Test
+    void poolCheioDescartaRecursos() {
+        final var pool = new PoolRenderizacao(1);
+        final var qrCodePix = new QRCodePix(DADOS);
+        final var imagem1 = pool.renderizarPng(qrCodePix);
+        final var imagem2 = pool.renderizarPng(qrCodePix);
+        assertEquals(2, pool.faltas());
+        assertEquals(2, pool.emUso());
+
+        imagem1.close();
+        imagem2.close();
+        assertEquals(1, pool.disponiveis());
+        assertEquals(1, pool.descartes());
+    }
+
+    @Test
+    void acessarImagemDevolvida() {
+        final var pool = new PoolRenderizacao(1);
+        final var imagem = pool.renderizarPng(new QRCodePix(DADOS));
+        imagem.close();
+        imagem.close();
+        assertEquals(0, pool.emUso());
+        assertThrows(IllegalStateException.class, imagem::bytes);
+        assertThrows(IllegalStateException.class, imagem::copiar);
+    }
+
+    @Test
+    void renderizarConcorrente() throws Exception {
+        final var pool = new PoolRenderizacao(4);
+        final byte[] esperado;
+        try(final var imagem = pool.renderizarPng(new QRCodePix(DADOS))) {
+            esperado = imagem.copiar();
+        }
+
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var futures = IntStream.range(0, 200).mapToObj(i -> executor.submit(() -> {
+                try(final var imagem = pool.renderizarPng(new QRCodePix(DADOS))) {
+                    return imagem.copiar();
+                }
+            })).toList();
+
+            for (final Future<byte[]> future : futures)
+                assertArrayEquals(esperado, future.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, pool.emUso());
+        assertTrue(pool.disponiveis() <= pool.capacidade());
+    }
+
+    @Test
+    void capacidadeInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new PoolRenderizacao(0));
+    }
+
+    private static BufferedImage ler(final byte[] png) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void assertPixelsIguais(final BufferedImage esperada, final BufferedImage obtida) {
+        assertEquals(esperada.getWidth(), obtida.getWidth());
+        assertEquals(esperada.getHeight(), obtida.getHeight());
+        for (int y = 0; y < esperada.getHeight(); y++) {
+            for (int x = 0; x < esperada.getWidth(); x++) {
+                final int pixelEsperado = esperada.getRGB(x, y) & 0xFFFFFF;
+                final int pixelObtido = obtida.getRGB(x, y) & 0xFFFFFF;
+                assertEquals(pixelEsperado, pixelObtido, "Pixel (%d, %d) diferente".formatted(x, y));
+            }
+        }
+    }
+
+    private static byte[] pngImageIO(final QRCodePix qrCodePix) {
+        final var out = new ByteArrayOutputStream();
+        qrCodePix.writeImageIO(out, "png");
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,259 @@
+package br.com.competeaqui.pix;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link ProcessadorPix}.
+ * @author Manoel Campos da Silva Filho
+ */
+class ProcessadorPixTest {
+    private static final DadosEnvioPix DADOS = new DadosEnvioPix("Manoel", "11111111111", new BigDecimal(1), "Palmas");
+
+    private static final String QRCODE = new CodigoPix(DADOS).generate();
+
+    /**
+     * Dados válidos individualmente, mas cuja chave e descrição juntas excedem o tamanho do campo 26.
+     */
+    private static final DadosEnvioPix DADOS_INVALIDOS =
+            new DadosEnvioPix("Manoel", "1".repeat(77), new BigDecimal(1), "Palmas", "D".repeat(72));
+
+    @Test
+    void processarMantemOrdemEInformaErrosPorElemento() throws InterruptedException {
+        final var dados = List.of(DADOS, DADOS_INVALIDOS, DADOS);
+        final var processador = new ProcessadorPix(2, 4);
+        final var assinante = new AssinanteTeste(Long.MAX_VALUE);
+        processador.subscribe(assinante);
+        new PublicadorLista(dados).subscribe(processador);
+
+        assinante.aguardar();
+        assertTrue(assinante.concluido);
+        assertNull(assinante.erro);
+        assertEquals(3, assinante.resultados.size());
+
+        final var primeiro = assinante.resultados.get(0);
+        assertTrue(primeiro.sucesso());
+        assertEquals(QRCODE, primeiro.codigo());
+        assertNull(primeiro.imagem());
+
+        final var segundo = assinante.resultados.get(1);
+        assertFalse(segundo.sucesso());
+        assertSame(DADOS_INVALIDOS, segundo.dados());
+        assertInstanceOf(IllegalArgumentException.class, segundo.erro());
+
+        assertEquals(QRCODE, assinante.resultados.get(2).codigo());
+    }
+
+    @Test
+    void processarGeraImagens() throws InterruptedException {
+        final var executor = Executors.newFixedThreadPool(2);
+        try {
+            final var processador = new ProcessadorPix(executor, 2, 2, "png");
+            final var assinante = new AssinanteTeste(Long.MAX_VALUE);
+            processador.subscribe(assinante);
+            new PublicadorLista(List.of(DADOS, DADOS)).subscribe(processador);
+
+            assinante.aguardar();
+            assertEquals(2, assinante.resultados.size());
+            for (final var resultado : assinante.resultados) {
+                final var imagem = resultado.imagem();
+                assertNotNull(imagem);
+                assertEquals((byte) 0x89, imagem[0]);
+                assertEquals('P', imagem[1]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void processarRespeitaDemandaDoAssinante() throws InterruptedException {
+        final int prefetch = 4;
+        final var dados = Collections.nCopies(50, DADOS);
+        final var publicador = new PublicadorLista(dados);
+        final var processador = new ProcessadorPix(2, prefetch);
+        final var assinante = new AssinanteTeste(3);
+        processador.subscribe(assinante);
+        publicador.subscribe(processador);
+
+        assertTrue(assinante.aguardarResultados(3));
+        // Dá tempo para que elementos além da demanda fossem publicados indevidamente
+        Thread.sleep(100);
+        assertEquals(3, assinante.resultados.size());
+        assertFalse(assinante.concluido);
+        assertTrue(publicador.solicitados.get() <= prefetch + assinante.resultados.size(),
+                   "Foram solicitados %d elementos à origem".formatted(publicador.solicitados.get()));
+
+        assinante.assinatura.request(Long.MAX_VALUE);
+        assinante.aguardar();
+        assertEquals(dados.size(), assinante.resultados.size());
+        assertTrue(assinante.concluido);
+    }
+
+    @Test
+    void processarRepassaErroDaOrigem() throws InterruptedException {
+        final var processador = new ProcessadorPix(2, 2);
+        final var assinante = new AssinanteTeste(Long.MAX_VALUE);
+        processador.subscribe(assinante);
+        final var erro = new IllegalStateException("falha na origem");
+        processador.onSubscribe(new AssinaturaVazia());
+        processador.onNext(DADOS);
+        processador.onError(erro);
+
+        assinante.aguardar();
+        assertEquals(1, assinante.resultados.size());
+        assertSame(erro, assinante.erro);
+        assertFalse(assinante.concluido);
+    }
+
+    @Test
+    void requestInvalidoEncerraComErro() throws InterruptedException {
+        final var processador = new ProcessadorPix(2, 2);
+        final var assinante = new AssinanteTeste(0);
+        processador.subscribe(assinante);
+        new PublicadorLista(List.of(DADOS)).subscribe(processador);
+        assinante.assinatura.request(0);
+
+        assinante.aguardar();
+        assertInstanceOf(IllegalArgumentException.class, assinante.erro);
+    }
+
+    @Test
+    void cancelarInterrompeOrigem() {
+        final var publicador = new PublicadorLista(Collections.nCopies(10, DADOS));
+        final var processador = new ProcessadorPix(1, 2);
+        final var assinante = new AssinanteTeste(0);
+        processador.subscribe(assinante);
+        publicador.subscribe(processador);
+        assinante.assinatura.cancel();
+
+        assertTrue(publicador.cancelado);
+    }
+
+    @Test
+    void segundoAssinanteRecebeErro() {
+        final var processador = new ProcessadorPix(1, 1);
+        processador.subscribe(new AssinanteTeste(0));
+        final var segundo = new AssinanteTeste(0);
+        processador.subscribe(segundo);
+        assertInstanceOf(IllegalStateException.class, segundo.erro);
+    }
+
+    @Test
+    void construtorComParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new ProcessadorPix(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ProcessadorPix(1, 0));
+    }
+
+    /**
+     * Publica os elementos de uma lista de forma síncrona, conforme a demanda, contando a quantidade solicitada.
+     */
+    private static final class PublicadorLista implements Flow.Publisher<DadosEnvioPix> {
+        private final List<DadosEnvioPix> dados;
+        private final AtomicLong solicitados = new AtomicLong();
+        private volatile boolean cancelado;
+
+        PublicadorLista(final List<DadosEnvioPix> dados) {
+            this.dados = dados;
+        }
+
+        @Override
+        public void subscribe(final Flow.Subscriber<? super DadosEnvioPix> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int proximo;
+                private long demanda;
+                private boolean emitindo;
+
+                @Override
+                public synchronized void request(final long n) {
+                    solicitados.addAndGet(n);
+                    demanda += n;
+                    // Evita recursão quando o assinante solicita mais elementos dentro do onNext
+                    if(emitindo)
+                        return;
+
+                    emitindo = true;
+                    while (demanda > 0 && proximo < dados.size() && !cancelado) {
+                        demanda--;
+                        subscriber.onNext(dados.get(proximo++));
+                    }
+
+                    emitindo = false;
+                    if(proximo == dados.size() && !cancelado) {
+                        proximo++;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelado = true;
+                }
+            });
+        }
+    }
+
+    private static final class AssinaturaVazia implements Flow.Subscription {
+        @Override public void request(final long n) {/**/}
+        @Override public void cancel() {/**/}
+    }
+
+    private static final class AssinanteTeste implements Flow.Subscriber<ResultadoPix> {
+        private final long demandaInicial;
+        private final List<ResultadoPix> resultados = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch termino = new CountDownLatch(1);
+        private volatile Flow.Subscription assinatura;
+        private volatile boolean concluido;
+        private volatile Throwable erro;
+
+        AssinanteTeste(final long demandaInicial) {
+            this.demandaInicial = demandaInicial;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.assinatura = subscription;
+            if(demandaInicial > 0)
+                subscription.request(demandaInicial);
+        }
+
+        @Override
+        public void onNext(final ResultadoPix item) {
+            resultados.add(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            erro = throwable;
+            termino.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            concluido = true;
+            termino.countDown();
+        }
+
+        void aguardar() throws InterruptedException {
+            assertTrue(termino.await(10, TimeUnit.SECONDS), "O fluxo não terminou");
+        }
+
+        boolean aguardarResultados(final int quantidade) throws InterruptedException {
+            for (int i = 0; i < 1000 && resultados.size() < quantidade; i++)
+                Thread.sleep(10);
+
+            return resultados.size() >= quantidade;
+        }
+    }
+}
@@ -91,6 +91,20 @@ class QRCodePixTest {
                    .orElse(String.valueOf(System.currentTimeMillis()));
     }
 
+    @Test
+    void getBytesIgualAoArquivoSalvo() throws IOException {
+        final byte[] bytesArqImgEsperado = Files.readAllBytes(Paths.get(QRCODE_FILENAME));
+        assertArrayEquals(bytesArqImgEsperado, instance.getBytes("png"));
+    }
+
+    @Test
+    void getSvg() {
+        final var svg = instance.getSvg();
+        assertTrue(svg.startsWith("<svg"));
+        assertTrue(svg.endsWith("</svg>"));
+        assertEquals(QRCODE, instance.toString());
+    }
+
     @Test
     void saveRandomFileCheckExists() {
         final Path caminhoImgGerada = instance.save();
@@ -117,8 +131,12 @@ class QRCodePixTest {
     }
 
     @Test
-    void strLenLeftPadded() {
-        final var strInvalidLen = "a".repeat(100);
-        assertThrows(IllegalArgumentException.class, () -> QRCodePix.strLenLeftPadded(strInvalidLen));
+    void dinamicoTemMenosModulos() throws Exception {
+        final var dados = new DadosEnvioPix(
+                "Manoel Campos da Silva Fh", "manoelcampos@gmail.com",
+                new BigDecimal("1.0"), "Palmas", "Pagamento do pedido 123456 na loja virtual");
+        final var dinamico = new QRCodePix(new DadosPixDinamico("Manoel Campos da Silva Fh", "pix.example.com/qr/v2/cobv/123", "Palmas"));
+        assertTrue(dinamico.modulos().getWidth() < new QRCodePix(dados).modulos().getWidth());
+        assertTrue(dinamico.generate().startsWith("000201010212"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package br.com.competeaqui.pix;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classe {@link VerificadorLote}.
+ * @author Manoel Campos da Silva Filho
+ */
+class VerificadorLoteTest {
+    /**
+     * Código gerado para os dados do primeiro registro de {@link #REGISTROS}.
+     */
+    private static final String QRCODE = new CodigoPix(new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas")).generate();
+
+    private static final String REGISTROS = """
+            Manoel;11111111111;1.0;Palmas
+            Maria;maria@email.com;25.50;Palmas;Pedido 1;TX1
+            Joao;22222222222;3;Gurupi;;TX2
+            """;
+
+    @Test
+    void verificarPastaGeradaPeloGeradorLote(@TempDir final Path pasta) throws IOException {
+        gerar(pasta);
+        final var divergencias = new ByteArrayOutputStream();
+        final var estatisticas = new VerificadorLote(2).verificar(pasta, new PrintStream(divergencias));
+
+        assertEquals(3, estatisticas.sucessos());
+        assertEquals(0, estatisticas.erros(), divergencias.toString());
+    }
+
+    @Test
+    void verificarZipReportaDivergencias(@TempDir final Path pasta) throws IOException {
+        gerar(pasta);
+        Files.writeString(pasta.resolve("TX1.txt"), QRCODE);
+        Files.write(pasta.resolve("corrompida.png"), new byte[]{1, 2, 3});
+
+        final var zip = pasta.resolve("qrcodes.zip");
+        try(final var out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            // A imagem vem depois do .txt correspondente, ao contrário do gerado pelo GeradorLote
+            for (final var nome : new String[]{"TX1.txt", "TX1.png", "TX2.png", "TX2.txt", "000001.png", "corrompida.png"}) {
+                out.putNextEntry(new ZipEntry("lote/" + nome));
+                out.write(Files.readAllBytes(pasta.resolve(nome)));
+                out.closeEntry();
+            }
+        }
+
+        final var divergencias = new ByteArrayOutputStream();
+        final var estatisticas = new VerificadorLote(3).verificar(zip, new PrintStream(divergencias, true, StandardCharsets.UTF_8));
+
+        assertEquals(2, estatisticas.sucessos());
+        assertEquals(2, estatisticas.erros());
+        final var linhas = divergencias.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, linhas.size());
+        assertTrue(linhas.get(0).startsWith("lote/TX1.png: Código lido difere do registrado"), linhas.get(0));
+        assertTrue(linhas.get(1).startsWith("lote/corrompida.png"), linhas.get(1));
+    }
+
+    @Test
+    void regerar() {
+        assertEquals(QRCODE, VerificadorLote.regerar(QRCODE));
+        final var dinamico = new CodigoPix(new DadosPixDinamico("Manoel", "pix.example.com/qr/v2/123", "Palmas")).generate();
+        assertEquals(dinamico, VerificadorLote.regerar(dinamico));
+
+        // Campo 62-07 (terminal) não é mantido na leitura, assim o código gerado novamente é diferente
+        final var comCampoExtra = comCrc(QRCODE.substring(0, QRCODE.indexOf("6207")) + "62150503***0704LOJA");
+        assertNotEquals(comCampoExtra, VerificadorLote.regerar(comCampoExtra));
+    }
+
+    @Test
+    void verificarCodigoComDadosDescartadosNaLeitura(@TempDir final Path pasta) throws IOException {
+        final var codigo = comCrc(QRCODE.substring(0, QRCODE.indexOf("6207")) + "62150503***0704LOJA");
+        Files.write(pasta.resolve("extra.png"), png(codigo));
+
+        final var divergencias = new ByteArrayOutputStream();
+        final var estatisticas = new VerificadorLote(1).verificar(pasta, new PrintStream(divergencias, true, StandardCharsets.UTF_8));
+        assertEquals(1, estatisticas.erros());
+        assertTrue(divergencias.toString(StandardCharsets.UTF_8).contains("difere do gerado"));
+    }
+
+    @Test
+    void decodificarImagemDoQRCodePix() throws IOException {
+        final var qrCodePix = new QRCodePix(new DadosEnvioPix("Manoel", "11111111111", new BigDecimal("1.0"), "Palmas"));
+        assertEquals(QRCODE, VerificadorLote.decodificar(qrCodePix.getBytes("png")));
+        try(final var imagem = new PoolRenderizacao(1).renderizarPng(qrCodePix)) {
+            assertEquals(QRCODE, VerificadorLote.decodificar(imagem.copiar()));
+        }
+    }
+
+    @Test
+    void decodificarImagemSemQRCode() throws IOException {
+        final var imagem = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(50, 50, BufferedImage.TYPE_BYTE_GRAY), "png", imagem);
+        assertThrows(IllegalArgumentException.class, () -> VerificadorLote.decodificar(imagem.toByteArray()));
+    }
+
+    @Test
+    void threadsInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> new VerificadorLote(0));
+    }
+
+    /**
+     * Gera a imagem PNG de um QRCode com um código qualquer, sem passar pelo {@link CodigoPix}.
+     */
+    private static byte[] png(final String codigo) throws IOException {
+        final BitMatrix matriz;
+        try {
+            matriz = new QRCodeWriter().encode(codigo, BarcodeFormat.QR_CODE, 300, 300);
+        } catch (WriterException e) {
+            throw new IllegalStateException(e);
+        }
+
+        final var image = new BufferedImage(matriz.getWidth(), matriz.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < matriz.getHeight(); y++) {
+            for (int x = 0; x < matriz.getWidth(); x++)
+                image.setRGB(x, y, matriz.get(x, y) ? 0 : 0xFFFFFF);
+        }
+
+        final var out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static String comCrc(final String codigoParcial) {
+        final var codigo = codigoParcial + CodigoPix.COD_CRC;
+        return codigo + CodigoPix.crcChecksum(codigo);
+    }
+
+    private static void gerar(final Path pasta) throws IOException {
+        final var gerador = new GeradorLote(2, GeradorLote.Modo.AMBOS, "png");
+        try(final var destino = gerador.destinoPasta(pasta)) {
+            final var estatisticas = gerador.processar(
+                    new BufferedReader(new StringReader(REGISTROS)), destino, new PrintStream(new ByteArrayOutputStream()));
+            assertEquals(0, estatisticas.erros());
+        }
+    }
+}